@@ -0,0 +1,80 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Part;
+import javafx.collections.ListChangeListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replacing every Part in the Inventory one updatePart call at a time against a single updateParts
+ * call. A listener on the Parts stands in for the main table, so the cost of delivering the
+ * change events is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BulkUpdateBenchmark {
+
+    @Param({"100000"})
+    public int partCount;
+
+    private Inventory inventory;
+    private Map<Integer, Part> updatedParts;
+    private int changeCount;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        inventory = Catalogs.inventory(partCount, 42);
+        inventory.getAllParts().addListener((ListChangeListener<Part>) change -> {
+            while (change.next()) {
+                changeCount += change.getAddedSize();
+            }
+        });
+
+        List<Part> parts = inventory.getAllParts();
+        updatedParts = new HashMap<>(parts.size() * 2);
+        for (Part part : parts) {
+            updatedParts.put(part.getId(), new InHouse(part.getId(), part.getName(), part.getPrice() + 1,
+                    part.getStock(), part.getMin(), part.getMax(), 0));
+        }
+    }
+
+    @Benchmark
+    public int updatePartEach() {
+        for (int i = 0; i < inventory.getAllParts().size(); i++) {
+            inventory.updatePart(i, updatedParts.get(inventory.getAllParts().get(i).getId()));
+        }
+        return changeCount;
+    }
+
+    @Benchmark
+    public int updatePartsBatch() {
+        inventory.updateParts(updatedParts);
+        return changeCount;
+    }
+}
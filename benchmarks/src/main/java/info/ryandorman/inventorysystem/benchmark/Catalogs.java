@@ -0,0 +1,67 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds deterministic synthetic catalogs for the benchmarks.
+ */
+final class Catalogs {
+
+    static final String[] WORDS = {
+            "Bolt", "Nut", "Washer", "Gear", "Spring", "Bearing", "Valve", "Hose", "Clamp", "Bracket",
+            "Sprocket", "Chain", "Pulley", "Belt", "Shaft", "Bushing", "Gasket", "Seal", "Fitting", "Relay"
+    };
+    static final String[] MATERIALS = {"Steel", "Brass", "Nylon", "Copper", "Aluminum", "Titanium"};
+
+    private Catalogs() {
+    }
+
+    static List<Part> parts(int count, long seed) {
+        Random random = new Random(seed);
+        List<Part> parts = new ArrayList<>(count);
+
+        for (int id = 1; id <= count; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " "
+                    + MATERIALS[random.nextInt(MATERIALS.length)] + " " + random.nextInt(10_000);
+            double price = Math.round(random.nextDouble() * 10_000) / 100.0;
+            int min = random.nextInt(10);
+            int max = min + 1 + random.nextInt(500);
+            int stock = min + random.nextInt(max - min + 1);
+
+            if (random.nextBoolean()) {
+                parts.add(new InHouse(id, name, price, stock, min, max, random.nextInt(5_000)));
+            } else {
+                parts.add(new Outsourced(id, name, price, stock, min, max, "Supplier " + random.nextInt(500)));
+            }
+        }
+
+        return parts;
+    }
+
+    static Inventory inventory(int partCount, long seed) {
+        Inventory inventory = new Inventory();
+        inventory.addParts(parts(partCount, seed));
+        return inventory;
+    }
+
+    static Product product(int id, List<Part> parts, int associatedCount, Random random) {
+        Product product = new Product(id, "Assembly " + id, 0, 1, 0, 10);
+        for (int i = 0; i < associatedCount; i++) {
+            product.addAssociatedPart(parts.get(random.nextInt(parts.size())));
+        }
+        return product;
+    }
+}
@@ -0,0 +1,83 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.utilities.JavaFXUtilities;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Callback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the four cell values of one table row with PropertyValueFactory versus
+ * JavaFXUtilities.cellValue. Run with {@code -prof gc} to compare allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellValueFactoryBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private final Callback<TableColumn.CellDataFeatures<Part, Integer>, ObservableValue<Integer>> reflectiveId = new PropertyValueFactory<>("id");
+    private final Callback<TableColumn.CellDataFeatures<Part, String>, ObservableValue<String>> reflectiveName = new PropertyValueFactory<>("name");
+    private final Callback<TableColumn.CellDataFeatures<Part, Integer>, ObservableValue<Integer>> reflectiveStock = new PropertyValueFactory<>("stock");
+    private final Callback<TableColumn.CellDataFeatures<Part, Double>, ObservableValue<Double>> reflectivePrice = new PropertyValueFactory<>("price");
+
+    private final Callback<TableColumn.CellDataFeatures<Part, Integer>, ObservableValue<Integer>> accessorId = JavaFXUtilities.cellValue(Part::getId);
+    private final Callback<TableColumn.CellDataFeatures<Part, String>, ObservableValue<String>> accessorName = JavaFXUtilities.cellValue(Part::getName);
+    private final Callback<TableColumn.CellDataFeatures<Part, Integer>, ObservableValue<Integer>> accessorStock = JavaFXUtilities.cellValue(Part::getStock);
+    private final Callback<TableColumn.CellDataFeatures<Part, Double>, ObservableValue<Double>> accessorPrice = JavaFXUtilities.cellValue(Part::getPrice);
+
+    private List<Part> parts;
+    private int row;
+
+    @Setup
+    public void setUp() {
+        parts = Catalogs.parts(ROWS, 42);
+    }
+
+    @Benchmark
+    public void propertyValueFactory(Blackhole blackhole) {
+        Part part = nextRow();
+        blackhole.consume(reflectiveId.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(reflectiveName.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(reflectiveStock.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(reflectivePrice.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+    }
+
+    @Benchmark
+    public void accessorCellValue(Blackhole blackhole) {
+        Part part = nextRow();
+        blackhole.consume(accessorId.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(accessorName.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(accessorStock.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+        blackhole.consume(accessorPrice.call(new TableColumn.CellDataFeatures<>(null, null, part)).getValue());
+    }
+
+    private Part nextRow() {
+        row = (row + 1) & (ROWS - 1);
+        return parts.get(row);
+    }
+}
@@ -0,0 +1,88 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Part;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id lookup, name search and the indexOf + updatePart edit path over catalogs of 10k to 10M Parts.
+ * Run with {@code -prof gc} to report the allocation rate alongside throughput and latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class InventoryLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int partCount;
+
+    @Param({"gear", "Titanium 42"})
+    public String nameQuery;
+
+    private static final int TARGETS = 1024;
+
+    private Inventory inventory;
+    private int[] targetIds;
+    private int[] targetIndexes;
+    private int target;
+
+    @Setup
+    public void setUp() {
+        inventory = Catalogs.inventory(partCount, 42);
+
+        // Pre-drawn random targets keep the random number generator out of the measurement
+        Random random = new Random(7);
+        targetIds = new int[TARGETS];
+        targetIndexes = new int[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            targetIds[i] = 1 + random.nextInt(partCount);
+            targetIndexes[i] = random.nextInt(partCount);
+        }
+    }
+
+    @Benchmark
+    public Part lookupPartById() {
+        return inventory.lookupPart(targetIds[nextTarget()]);
+    }
+
+    @Benchmark
+    public ObservableList<Part> lookupPartByName() {
+        return inventory.lookupPart(nameQuery);
+    }
+
+    @Benchmark
+    public int updatePartViaIndexOf() {
+        // Mirrors PartViewController.onSave: find the row of the edited Part, then replace it
+        Part selectedPart = inventory.getAllParts().get(targetIndexes[nextTarget()]);
+        int existingIndex = inventory.getAllParts().indexOf(selectedPart);
+        inventory.updatePart(existingIndex, selectedPart);
+        return existingIndex;
+    }
+
+    private int nextTarget() {
+        target = (target + 1) & (TARGETS - 1);
+        return target;
+    }
+}
@@ -0,0 +1,62 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InventoryValuation;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The price check ProductViewController.onSave runs over a Product's selected Parts, in cents
+ * through InventoryValuation and as the boxed stream it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductAssemblyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int associatedCount;
+
+    private ObservableList<Part> selectedParts;
+
+    @Setup
+    public void setUp() {
+        List<Part> parts = Catalogs.parts(10_000, 42);
+        Product product = Catalogs.product(1, parts, associatedCount, new Random(7));
+        selectedParts = product.getAllAssociatedParts();
+    }
+
+    @Benchmark
+    public long costCents() {
+        return InventoryValuation.costCents(selectedParts);
+    }
+
+    @Benchmark
+    public double totalPriceOfParts() {
+        return selectedParts.stream()
+                .reduce(0.0, (partialPrice, part) -> partialPrice + part.getPrice(), Double::sum);
+    }
+}
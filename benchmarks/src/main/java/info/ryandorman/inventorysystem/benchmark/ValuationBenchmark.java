@@ -0,0 +1,86 @@
+package info.ryandorman.inventorysystem.benchmark;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.InventoryValuation;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.utilities.ColumnAggregator;
+import info.ryandorman.inventorysystem.utilities.ScalarColumnAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valuing the stock on hand in cents against the old double loop, and the vector column sums
+ * against the scalar ones on columns already copied out. The fork adds the incubator module so
+ * ColumnAggregator.get() is the vector version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ValuationBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int partCount;
+
+    private final ColumnAggregator scalar = new ScalarColumnAggregator();
+    private final ColumnAggregator shared = ColumnAggregator.get();
+
+    private Inventory inventory;
+    private long[] prices;
+    private long[] stocks;
+
+    @Setup
+    public void setUp() {
+        inventory = Catalogs.inventory(partCount, 42);
+
+        prices = new long[partCount];
+        stocks = new long[partCount];
+        for (int i = 0; i < partCount; i++) {
+            Part part = inventory.getAllParts().get(i);
+            prices[i] = part.getPriceCents();
+            stocks[i] = part.getStock();
+        }
+    }
+
+    @Benchmark
+    public long partsValueCents() {
+        return InventoryValuation.partsValueCents(inventory.getAllParts());
+    }
+
+    @Benchmark
+    public double partsValueDouble() {
+        double value = 0;
+        for (Part part : inventory.getAllParts()) {
+            value += part.getPrice() * part.getStock();
+        }
+        return value;
+    }
+
+    @Benchmark
+    public long columnsScalar() {
+        return scalar.sumOfProducts(prices, stocks, partCount);
+    }
+
+    @Benchmark
+    public long columnsShared() {
+        return shared.sumOfProducts(prices, stocks, partCount);
+    }
+}
@@ -5,23 +5,49 @@ package info.ryandorman.inventorysystem;
  *   ID: 001002824
  */
 
+import info.ryandorman.inventorysystem.controller.MainViewController;
+import info.ryandorman.inventorysystem.model.EditJournal;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.storage.InventoryStore;
+import info.ryandorman.inventorysystem.model.storage.LogInventoryStore;
+import info.ryandorman.inventorysystem.utilities.ViewCache;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.nio.file.Paths;
+
 public class Main extends Application {
 
+    private InventoryStore store;
+    private EditJournal journal;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
-        FXMLLoader loader = new FXMLLoader();
-        loader.setLocation(getClass().getResource("/view/MainView.fxml"));
-        Parent root = loader.load();
+        // Load the saved Inventory, which keeps recording changes until the app stops
+        store = new LogInventoryStore(Paths.get(System.getProperty("user.home"), ".dorman-inventory"));
+        Inventory inventory = store.open();
+
+        // Started after loading so the saved Inventory itself can't be undone
+        journal = new EditJournal(inventory);
+
+        ViewCache.View<MainViewController> mainView = ViewCache.get(MainViewController.MAIN_VIEW);
+        mainView.getController().initData(inventory, journal);
 
         primaryStage.setTitle("Dorman Inventory System");
-        primaryStage.setScene(new Scene(root, 1200, 800));
-        primaryStage.show();
+        ViewCache.show(primaryStage, mainView, 1200, 800);
+
+        // Parse the other Views in the background so opening them the first time is as quick as after
+        ViewCache.prewarm(MainViewController.PART_VIEW, MainViewController.PRODUCT_VIEW);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+        if (store != null) {
+            store.close();
+        }
     }
 
 
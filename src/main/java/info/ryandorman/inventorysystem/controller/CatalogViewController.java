@@ -0,0 +1,138 @@
+package info.ryandorman.inventorysystem.controller;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.IdAllocator;
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.storage.PartColumnFile;
+import info.ryandorman.inventorysystem.utilities.JavaFXUtilities;
+import info.ryandorman.inventorysystem.utilities.PagedObservableList;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+
+public class CatalogViewController implements Initializable {
+
+    // Rows have a fixed height so the number on screen, and so the page size, follows from the table's
+    private static final double ROW_HEIGHT = 24.0;
+    private static final int MIN_PAGE_SIZE = 32;
+    private static final int MAX_PAGES = 16;
+
+    // State
+    private Inventory inventory;
+    private PagedObservableList<Part> catalogRows;
+
+    @FXML
+    private Label title;
+    @FXML
+    private Label rowCountLabel;
+
+    // Catalog Table
+    @FXML
+    private TableView<Part> catalogTableView;
+    @FXML
+    private TableColumn<Part, Integer> catalogIdColumn;
+    @FXML
+    private TableColumn<Part, String> catalogNameColumn;
+    @FXML
+    private TableColumn<Part, Integer> catalogStockColumn;
+    @FXML
+    private TableColumn<Part, Double> catalogPriceColumn;
+    @FXML
+    private TableColumn<Part, String> catalogSourceColumn;
+
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        // Setup Catalog Table View Columns
+        catalogIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getId));
+        catalogNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getName));
+        catalogStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getStock));
+        catalogPriceColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getPrice));
+        catalogSourceColumn.setCellValueFactory(JavaFXUtilities.cellValue(part -> part instanceof InHouse
+                ? Integer.toString(((InHouse) part).getMachineId())
+                : ((Outsourced) part).getCompanyName()));
+
+        catalogTableView.setFixedCellSize(ROW_HEIGHT);
+        catalogTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        // Keep each page at two viewports as the window is resized
+        catalogTableView.heightProperty().addListener((observable, oldValue, newValue) -> {
+            if (catalogRows != null) {
+                catalogRows.setPageSize(pageSize());
+            }
+        });
+    }
+
+    public void initData(Inventory inventory, PartColumnFile catalog, String name) {
+        // Called each time a catalog is opened; the cached View is reused
+        this.inventory = inventory;
+        title.setText("Catalog: " + name);
+        rowCountLabel.setText(catalog.size() + " Parts");
+
+        // Rows stay in the mapped file until scrolled into view
+        catalogRows = new PagedObservableList<>(catalog, pageSize(), MAX_PAGES);
+        catalogTableView.setItems(catalogRows);
+        catalogTableView.getSelectionModel().clearSelection();
+        catalogTableView.scrollTo(0);
+    }
+
+    public void release() {
+        // Drop the rows so the catalog's mapping can be released once the View is closed
+        catalogTableView.setItems(FXCollections.emptyObservableList());
+        catalogRows = null;
+    }
+
+    private int pageSize() {
+        int visibleRows = (int) Math.ceil(catalogTableView.getHeight() / ROW_HEIGHT);
+        return Math.max(MIN_PAGE_SIZE, visibleRows * 2);
+    }
+
+    public void onAddToInventory() {
+        List<Part> selectedParts = catalogTableView.getSelectionModel().getSelectedItems();
+        if (selectedParts.isEmpty()) {
+            return;
+        }
+
+        // Catalog ids are the supplier's, so each Part added gets an id of its own, all from one reservation
+        IdAllocator.Block ids = inventory.getPartIds().reserve(selectedParts.size());
+        List<Part> newParts = new ArrayList<>(selectedParts.size());
+        for (Part part : selectedParts) {
+            newParts.add(copyOf(part, ids.next()));
+        }
+        inventory.addParts(newParts);
+        catalogTableView.getSelectionModel().clearSelection();
+    }
+
+    private static Part copyOf(Part part, int id) {
+        Part copy;
+        if (part instanceof InHouse) {
+            copy = new InHouse(id, part.getName(), 0, part.getStock(), part.getMin(), part.getMax(),
+                    ((InHouse) part).getMachineId());
+        } else {
+            copy = new Outsourced(id, part.getName(), 0, part.getStock(), part.getMin(), part.getMax(),
+                    ((Outsourced) part).getCompanyName());
+        }
+        copy.setPriceCents(part.getPriceCents());
+        return copy;
+    }
+
+    public void onClose(ActionEvent actionEvent) {
+        Stage catalogStage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
+        catalogStage.close();
+    }
+}
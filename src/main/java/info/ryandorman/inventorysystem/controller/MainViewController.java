@@ -6,30 +6,73 @@ package info.ryandorman.inventorysystem.controller;
  */
 
 import info.ryandorman.inventorysystem.model.*;
+import info.ryandorman.inventorysystem.model.storage.CsvExporter;
+import info.ryandorman.inventorysystem.model.storage.CsvImporter;
+import info.ryandorman.inventorysystem.model.storage.ImportResult;
+import info.ryandorman.inventorysystem.model.storage.PartColumnFile;
+import info.ryandorman.inventorysystem.utilities.BackgroundSearch;
 import info.ryandorman.inventorysystem.utilities.JavaFXUtilities;
+import info.ryandorman.inventorysystem.utilities.ViewCache;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Modality;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class MainViewController implements Initializable {
 
+    // Cached Views opened from here
+    public static final String MAIN_VIEW = "/view/MainView.fxml";
+    public static final String PART_VIEW = "/view/PartView.fxml";
+    public static final String PRODUCT_VIEW = "/view/ProductView.fxml";
+    public static final String CATALOG_VIEW = "/view/CatalogView.fxml";
+
+    // Part catalogs in the columnar format of PartColumnFile
+    private static final FileChooser.ExtensionFilter CATALOG_FILES =
+            new FileChooser.ExtensionFilter("Part Catalogs", "*.catalog");
+    private static final FileChooser.ExtensionFilter CSV_FILES =
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv");
+
+    // Rejected rows listed in the import report; the rest are only counted
+    private static final int REPORTED_IMPORT_ERRORS = 10;
+
+    // Parts and Products within this many units of their minimum are listed for reorder
+    private static final int REORDER_HEADROOM = 5;
+    private static final int REORDER_LIMIT = 100;
+
     // State
     private Inventory inventory;
+    private EditJournal journal;
+    private BackgroundSearch<ObservableList<Part>> partSearch;
+    private BackgroundSearch<ObservableList<Product>> productSearch;
+    private ReorderWatch reorderWatch;
+    private CapacityEngine capacityEngine;
+    private boolean capacityRefreshScheduled;
 
     // Part Table
     @FXML
@@ -58,28 +101,63 @@ public class MainViewController implements Initializable {
     private TableColumn<Product, Integer> productStockColumn;
     @FXML
     private TableColumn<Product, Double> productPriceColumn;
+    @FXML
+    private TableColumn<Product, Integer> productBuildableColumn;
+
+    @FXML
+    private Button undoButton;
+    @FXML
+    private Button redoButton;
+
+    // Reorder Table
+    @FXML
+    private TableView<ReorderAlert> reorderTableView;
+    @FXML
+    private TableColumn<ReorderAlert, String> reorderTypeColumn;
+    @FXML
+    private TableColumn<ReorderAlert, Integer> reorderIdColumn;
+    @FXML
+    private TableColumn<ReorderAlert, String> reorderNameColumn;
+    @FXML
+    private TableColumn<ReorderAlert, Integer> reorderStockColumn;
+    @FXML
+    private TableColumn<ReorderAlert, Integer> reorderMinColumn;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Setup Part Table View Columns
-        partIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partStockColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getId));
+        partNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getName));
+        partStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getStock));
+        partPriceColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getPrice));
 
         // Setup Product Table View Columns
-        productIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        productNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        productStockColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        productPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
-
-        // Create in-memory Store to hold inventory
-        initData(new Inventory());
+        productIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(Product::getId));
+        productNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(Product::getName));
+        productStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(Product::getStock));
+        productPriceColumn.setCellValueFactory(JavaFXUtilities.cellValue(Product::getPrice));
+
+        // Setup Reorder Table View Columns
+        reorderTypeColumn.setCellValueFactory(JavaFXUtilities.cellValue(ReorderAlert::getType));
+        reorderIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(ReorderAlert::getId));
+        reorderNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(ReorderAlert::getName));
+        reorderStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(ReorderAlert::getStock));
+        reorderMinColumn.setCellValueFactory(JavaFXUtilities.cellValue(ReorderAlert::getMin));
+
+        // Search as the user types, running lookups off the FX thread
+        partSearch = new BackgroundSearch<>(this::findParts, this::showFoundParts);
+        productSearch = new BackgroundSearch<>(this::findProducts, this::showFoundProducts);
+        partSearchField.textProperty().addListener((observable, oldValue, newValue) -> onSearchParts());
+        productSearchField.textProperty().addListener((observable, oldValue, newValue) -> onSearchProducts());
     }
 
-    public void initData(Inventory inventory) {
-        // Allow store to be passed back after being altered in other Views
+    public void initData(Inventory inventory, EditJournal journal) {
+        // Called once; the cached View is reused with reset() when returning to it
+        // Store is loaded by Main and passed back after being altered in other Views
         this.inventory = inventory;
+        this.journal = journal;
+        undoButton.disableProperty().bind(journal.canUndoProperty().not());
+        redoButton.disableProperty().bind(journal.canRedoProperty().not());
 
         // Create Test Data if none
 //        if (inventory.getAllParts().isEmpty() && inventory.getAllProducts().isEmpty()) {
@@ -89,17 +167,46 @@ public class MainViewController implements Initializable {
         // Load data into Table Views
         partTableView.setItems(inventory.getAllParts());
         productTableView.setItems(inventory.getAllProducts());
+
+        // Keep the Parts and Products closest to running out in view
+        reorderWatch = new ReorderWatch(inventory, REORDER_HEADROOM, REORDER_LIMIT);
+        reorderTableView.setItems(reorderWatch.getAlerts());
+
+        // How many of each Product the Parts in stock can build, kept up to date as Parts change
+        capacityEngine = new CapacityEngine(inventory);
+        productBuildableColumn.setCellValueFactory(
+                JavaFXUtilities.cellValue(product -> capacityEngine.getBuildable(product.getId())));
+        capacityEngine.addListener(productId -> scheduleCapacityRefresh());
+    }
+
+    private void scheduleCapacityRefresh() {
+        // A Part's stock changes no Product row, so redraw the Products once after a burst of changes
+        if (!capacityRefreshScheduled) {
+            capacityRefreshScheduled = true;
+            Platform.runLater(() -> {
+                capacityRefreshScheduled = false;
+                productTableView.refresh();
+            });
+        }
+    }
+
+    public void reset() {
+        // Drop searches and selections left from before the last switch away
+        partSearchField.clear();
+        productSearchField.clear();
+        partTableView.getSelectionModel().clearSelection();
+        productTableView.getSelectionModel().clearSelection();
     }
 
     private void initTestData() {
-        Part testPart1 = new InHouse(Part.getCount() + 1, "Test Part 1", 10.25, 3, 2, 5, 2543);
-        Part testPart2 = new Outsourced(Part.getCount() + 1, "Test Part 2", 0.10, 100, 50, 500, "Test Co");
-        Part testPart3 = new InHouse(Part.getCount() + 1, "Test Part 3", 100.66, 5, 5, 50, 2112);
-        Part testPart4 = new InHouse(Part.getCount() + 1, "Test Part 4", 1.52, 75, 50, 500, 2543);
-        Part testPart5 = new InHouse(Part.getCount() + 1, "Test Part 5", 10.25, 3, 2, 5, 2543);
-        Part testPart6 = new Outsourced(Part.getCount() + 1, "Test Part 6", 0.10, 100, 50, 500, "Test Co");
-        Part testPart7 = new InHouse(Part.getCount() + 1, "Test Part 7", 100.66, 5, 5, 50, 2112);
-        Part testPart8 = new InHouse(Part.getCount() + 1, "Test Part 8", 1.52, 75, 50, 500, 2543);
+        Part testPart1 = new InHouse(inventory.getPartIds().next(), "Test Part 1", 10.25, 3, 2, 5, 2543);
+        Part testPart2 = new Outsourced(inventory.getPartIds().next(), "Test Part 2", 0.10, 100, 50, 500, "Test Co");
+        Part testPart3 = new InHouse(inventory.getPartIds().next(), "Test Part 3", 100.66, 5, 5, 50, 2112);
+        Part testPart4 = new InHouse(inventory.getPartIds().next(), "Test Part 4", 1.52, 75, 50, 500, 2543);
+        Part testPart5 = new InHouse(inventory.getPartIds().next(), "Test Part 5", 10.25, 3, 2, 5, 2543);
+        Part testPart6 = new Outsourced(inventory.getPartIds().next(), "Test Part 6", 0.10, 100, 50, 500, "Test Co");
+        Part testPart7 = new InHouse(inventory.getPartIds().next(), "Test Part 7", 100.66, 5, 5, 50, 2112);
+        Part testPart8 = new InHouse(inventory.getPartIds().next(), "Test Part 8", 1.52, 75, 50, 500, 2543);
 
         inventory.addPart(testPart1);
         inventory.addPart(testPart2);
@@ -110,11 +217,11 @@ public class MainViewController implements Initializable {
         inventory.addPart(testPart7);
         inventory.addPart(testPart8);
 
-        Product testProduct1 = new Product(Product.getCount() + 1, "Test Product 1", 125.98, 55, 25, 55);
+        Product testProduct1 = new Product(inventory.getProductIds().next(), "Test Product 1", 125.98, 55, 25, 55);
         testProduct1.addAssociatedPart(inventory.getAllParts().get(0));
         testProduct1.addAssociatedPart(inventory.getAllParts().get(1));
 
-        Product testProduct2 = new Product(Product.getCount() + 1, "Test Product 2", 10725.98, 5, 5, 10);
+        Product testProduct2 = new Product(inventory.getProductIds().next(), "Test Product 2", 10725.98, 5, 5, 10);
         testProduct2.addAssociatedPart(inventory.getAllParts().get(2));
         testProduct2.addAssociatedPart(inventory.getAllParts().get(3));
 
@@ -128,31 +235,46 @@ public class MainViewController implements Initializable {
 
         // Determine if we are clearing a search or starting a new one
         if (searchValue == null || searchValue.isEmpty()) {
-            // If no value entered, clear search and selection
+            // If no value entered, drop any running search and clear search and selection
+            partSearch.cancel();
             partTableView.setItems(inventory.getAllParts());
             partTableView.getSelectionModel().clearSelection();
         } else {
-            // Otherwise search using the id or name
-            ObservableList<Part> foundParts = FXCollections.observableArrayList();
+            // Otherwise search using the id or name in the background
+            partSearch.submit(searchValue);
+        }
+    }
 
-            // Assume we got an int, if that fails we will search by String
-            try {
-                int id = Integer.parseInt(searchValue);
-                Part foundPart = inventory.lookupPart(id);
+    private ObservableList<Part> findParts(String searchValue) {
+        // Price and stock ranges such as "price:10..20" or "stock:<5" go to the sorted indexes
+        RangeQuery rangeQuery = RangeQuery.parse(searchValue);
+        if (rangeQuery != null) {
+            return rangeQuery.lookupParts(inventory);
+        }
 
-                // If we find a result add it to the list of search results
-                if (foundPart != null) {
-                    foundParts.add(foundPart);
-                }
+        ObservableList<Part> foundParts = FXCollections.observableArrayList();
+
+        // Assume we got an int, if that fails we will search by String
+        try {
+            int id = Integer.parseInt(searchValue);
+            Part foundPart = inventory.lookupPart(id);
 
-            } catch (NumberFormatException nfe) {
-                foundParts = inventory.lookupPart(searchValue);
+            // If we find a result add it to the list of search results
+            if (foundPart != null) {
+                foundParts.add(foundPart);
             }
 
-            // Set the table with the found results and select the first entry
-            partTableView.setItems(foundParts);
-            partTableView.getSelectionModel().clearAndSelect(0);
+        } catch (NumberFormatException nfe) {
+            foundParts = inventory.lookupPart(searchValue);
         }
+
+        return foundParts;
+    }
+
+    private void showFoundParts(ObservableList<Part> foundParts) {
+        // Set the table with the found results and select the first entry
+        partTableView.setItems(foundParts);
+        partTableView.getSelectionModel().clearAndSelect(0);
     }
 
     public void onSearchProducts() {
@@ -161,31 +283,46 @@ public class MainViewController implements Initializable {
 
         // Determine if we are clearing a search or starting a new one
         if (searchValue == null || searchValue.isEmpty()) {
-            // If no value entered, clear search and selection
+            // If no value entered, drop any running search and clear search and selection
+            productSearch.cancel();
             productTableView.setItems(inventory.getAllProducts());
             productTableView.getSelectionModel().clearSelection();
         } else {
-            // Otherwise search using the id or name
-            ObservableList<Product> foundProducts = FXCollections.observableArrayList();
+            // Otherwise search using the id or name in the background
+            productSearch.submit(searchValue);
+        }
+    }
 
-            // Assume we got an int, if that fails we will search by String
-            try {
-                int id = Integer.parseInt(searchValue);
-                Product foundProduct = inventory.lookupProduct(id);
+    private ObservableList<Product> findProducts(String searchValue) {
+        // Price and stock ranges such as "price:10..20" or "stock:<5" go to the sorted indexes
+        RangeQuery rangeQuery = RangeQuery.parse(searchValue);
+        if (rangeQuery != null) {
+            return rangeQuery.lookupProducts(inventory);
+        }
 
-                // If we find a result add it to the list of search results
-                if (foundProduct != null) {
-                    foundProducts.add(foundProduct);
-                }
+        ObservableList<Product> foundProducts = FXCollections.observableArrayList();
 
-            } catch (NumberFormatException nfe) {
-                foundProducts = inventory.lookupProduct(searchValue);
+        // Assume we got an int, if that fails we will search by String
+        try {
+            int id = Integer.parseInt(searchValue);
+            Product foundProduct = inventory.lookupProduct(id);
+
+            // If we find a result add it to the list of search results
+            if (foundProduct != null) {
+                foundProducts.add(foundProduct);
             }
 
-            // Set the table with the found results and select the first entry
-            productTableView.setItems(foundProducts);
-            productTableView.getSelectionModel().clearAndSelect(0);
+        } catch (NumberFormatException nfe) {
+            foundProducts = inventory.lookupProduct(searchValue);
         }
+
+        return foundProducts;
+    }
+
+    private void showFoundProducts(ObservableList<Product> foundProducts) {
+        // Set the table with the found results and select the first entry
+        productTableView.setItems(foundProducts);
+        productTableView.getSelectionModel().clearAndSelect(0);
     }
 
     public void onAddPart(ActionEvent actionEvent) throws IOException {
@@ -202,27 +339,29 @@ public class MainViewController implements Initializable {
 
     private void loadPartView(ActionEvent actionEvent, String title, Part selectedPart) throws IOException {
         Stage inventoryStage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
+        ViewCache.View<PartViewController> partView = ViewCache.get(PART_VIEW);
 
-        FXMLLoader loader = new FXMLLoader();
-        loader.setLocation(getClass().getResource("/view/PartView.fxml"));
-        Parent partViewParent = loader.load();
-        Stage partViewStage = new Stage();
-        PartViewController controller = loader.getController();
+        // Pass Store and Part ref to Controller, which resets the form left by the last use
+        partView.getController().initData(inventory, selectedPart);
 
-        // Pass Store and Part ref to Controller
-        controller.initData(inventory, selectedPart);
-
-        // Init View
-        partViewStage.setTitle(title);
-        partViewStage.setScene(new Scene(partViewParent, 500, 450));
-        partViewStage.initOwner(inventoryStage);
-        partViewStage.initModality(Modality.APPLICATION_MODAL);
-        partViewStage.showAndWait();
+        // Show the View in its reused Modal
+        ViewCache.showAndWait(partView, inventoryStage, title, 500, 450);
     }
 
     public void onDeletePart() {
         Part selectedPart = partTableView.getSelectionModel().getSelectedItem();
 
+        // A Part still associated with a Product can't be deleted, so name the Products that use it
+        if (selectedPart != null && inventory.isPartUsed(selectedPart.getId())) {
+            String productNames = inventory.lookupProductsUsing(selectedPart.getId()).stream()
+                    .limit(5)
+                    .map(Product::getName)
+                    .collect(Collectors.joining(", "));
+            JavaFXUtilities.warnUser("Warning", "Part In Use",
+                    "Please remove this Part from the Products that use it first: " + productNames + ".");
+            return;
+        }
+
         boolean userConfirmed = JavaFXUtilities.confirmAction("Delete", selectedPart.getName(),
                 "Are you sure you want to delete this Part?");
 
@@ -244,20 +383,15 @@ public class MainViewController implements Initializable {
     }
 
     private void loadProductView(ActionEvent actionEvent, String title, Product selectedProduct) throws IOException {
-        FXMLLoader loader = new FXMLLoader();
-        loader.setLocation(getClass().getResource("/view/ProductView.fxml"));
-        Parent productViewParent = loader.load();
-        ProductViewController controller = loader.getController();
-
+        ViewCache.View<ProductViewController> productView = ViewCache.get(PRODUCT_VIEW);
 
         // Pass Store and Part ref to Controller
-        controller.initData(inventory, selectedProduct);
+        productView.getController().initData(inventory, selectedProduct);
 
-        // Set stage with Product View
+        // Swap the Product View into the Main Stage
         Stage window = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
         window.setTitle(window.getTitle() + " - " + title);
-        window.setScene(new Scene(productViewParent, 1200, 800));
-        window.show();
+        ViewCache.show(window, productView, 1200, 800);
     }
 
     public void onDeleteProduct() {
@@ -271,6 +405,161 @@ public class MainViewController implements Initializable {
         }
     }
 
+    public void onBrowseCatalog(ActionEvent actionEvent) throws IOException {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Browse Catalog");
+        chooser.getExtensionFilters().add(CATALOG_FILES);
+        File file = chooser.showOpenDialog(windowOf(actionEvent));
+        if (file == null) {
+            return;
+        }
+
+        // Only maps the file; rows are read as the Catalog View scrolls to them
+        PartColumnFile catalog;
+        try {
+            catalog = PartColumnFile.open(file.toPath());
+        } catch (IOException e) {
+            JavaFXUtilities.warnUser("Error", "Catalog Not Opened", e.getMessage());
+            return;
+        }
+
+        ViewCache.View<CatalogViewController> catalogView = ViewCache.get(CATALOG_VIEW);
+        catalogView.getController().initData(inventory, catalog, file.getName());
+        ViewCache.showAndWait(catalogView, windowOf(actionEvent), "Catalog", 800, 600);
+        catalogView.getController().release();
+    }
+
+    public void onExportCatalog(ActionEvent actionEvent) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Catalog");
+        chooser.setInitialFileName("parts.catalog");
+        chooser.getExtensionFilters().add(CATALOG_FILES);
+        File file = chooser.showSaveDialog(windowOf(actionEvent));
+
+        if (file != null) {
+            // Written from a snapshot, so editing can carry on while a large catalog is written
+            List<Part> parts = inventory.snapshot().getParts();
+            runInBackground(() -> {
+                PartColumnFile.write(file.toPath(), parts);
+                return null;
+            }, done -> { }, "Catalog Not Exported");
+        }
+    }
+
+    public void onImportCsv(ActionEvent actionEvent) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import CSV");
+        chooser.getExtensionFilters().add(CSV_FILES);
+        List<File> files = chooser.showOpenMultipleDialog(windowOf(actionEvent));
+        if (files == null) {
+            return;
+        }
+
+        // Files are told apart by their header; Parts go in first so the Products can find them
+        runInBackground(() -> {
+            List<File> partFiles = new ArrayList<>();
+            List<File> productFiles = new ArrayList<>();
+            StringBuilder report = new StringBuilder();
+            for (File file : files) {
+                String header;
+                try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    header = String.valueOf(reader.readLine()).trim();
+                }
+                if (header.equalsIgnoreCase(CsvImporter.PART_HEADER)) {
+                    partFiles.add(file);
+                } else if (header.equalsIgnoreCase(CsvImporter.PRODUCT_HEADER)) {
+                    productFiles.add(file);
+                } else {
+                    report.append(file.getName()).append(": not a Part or Product file\n");
+                }
+            }
+
+            CsvImporter importer = new CsvImporter();
+            for (File file : partFiles) {
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    describeImport(report, file, "Parts", importer.importParts(reader, inventory, journal, Platform::runLater));
+                }
+            }
+            for (File file : productFiles) {
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    describeImport(report, file, "Products", importer.importProducts(reader, inventory, journal, Platform::runLater));
+                }
+            }
+            return report.toString();
+        }, report -> JavaFXUtilities.informUser("Import CSV", "Import Finished", report), "CSV Not Imported");
+    }
+
+    private static void describeImport(StringBuilder report, File file, String rows, ImportResult result) {
+        report.append(file.getName()).append(": ").append(result.getImported()).append(' ').append(rows)
+                .append(" imported, ").append(result.getRejected()).append(" rejected\n");
+        List<String> errors = result.getErrors();
+        for (int i = 0; i < Math.min(errors.size(), REPORTED_IMPORT_ERRORS); i++) {
+            report.append("    ").append(errors.get(i)).append('\n');
+        }
+        if (result.getRejected() > REPORTED_IMPORT_ERRORS) {
+            report.append("    ...\n");
+        }
+    }
+
+    public void onExportCsv(ActionEvent actionEvent) {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export CSV");
+        File directory = chooser.showDialog(windowOf(actionEvent));
+        if (directory == null) {
+            return;
+        }
+
+        Path partsFile = directory.toPath().resolve("parts.csv");
+        Path productsFile = directory.toPath().resolve("products.csv");
+        if ((Files.exists(partsFile) || Files.exists(productsFile)) && !JavaFXUtilities.confirmAction("Export CSV",
+                "Replace Files", "Are you sure you want to replace parts.csv and products.csv in this folder?")) {
+            return;
+        }
+
+        // Parts and Products come from one snapshot, so every Part a Product lists is in parts.csv
+        InventorySnapshot snapshot = inventory.snapshot();
+        runInBackground(() -> {
+            CsvExporter exporter = new CsvExporter();
+            try (Writer writer = Files.newBufferedWriter(partsFile, StandardCharsets.UTF_8)) {
+                exporter.exportParts(writer, snapshot.getParts());
+            }
+            try (Writer writer = Files.newBufferedWriter(productsFile, StandardCharsets.UTF_8)) {
+                exporter.exportProducts(writer, snapshot.getProducts());
+            }
+            return null;
+        }, done -> { }, "CSV Not Exported");
+    }
+
+    private <T> void runInBackground(Callable<T> task, Consumer<T> onDone, String failureHeader) {
+        // File work runs off the FX thread; its outcome is reported back on it
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onDone.accept(result);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                JavaFXUtilities.warnUser("Error", failureHeader, String.valueOf(cause.getMessage()));
+            }
+        }));
+    }
+
+    private static Window windowOf(ActionEvent actionEvent) {
+        return ((Node) actionEvent.getSource()).getScene().getWindow();
+    }
+
+    public void onUndo() {
+        journal.undo();
+    }
+
+    public void onRedo() {
+        journal.redo();
+    }
+
     public void onExit() {
         Platform.exit();
     }
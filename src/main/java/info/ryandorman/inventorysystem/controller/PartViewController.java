@@ -78,6 +78,17 @@ public class PartViewController implements Initializable {
         this.inventory = inventory;
         this.selectedPart = selectedPart;
 
+        // The View is cached, so clear what the last Add or Modify left behind
+        title.setText("Add Part");
+        idTextField.clear();
+        nameTextField.clear();
+        stockTextField.clear();
+        priceTextField.clear();
+        minTextField.clear();
+        maxTextField.clear();
+        inHouseRadioButton.fire();
+        sourceTextField.clear();
+
         // Determine if the user is performing an Add or Modify
         if (selectedPart != null) {
             // Setup UI
@@ -132,7 +143,6 @@ public class PartViewController implements Initializable {
             }
 
             // Get field values
-            int id = isUpdate ? selectedPart.getId() : Part.getCount() + 1;
             String name = nameTextField.getText().trim();
             int stock = Integer.parseInt(stockTextField.getText());
             double price = Double.parseDouble(priceTextField.getText());
@@ -152,6 +162,9 @@ public class PartViewController implements Initializable {
                 return;
             }
 
+            // Only draw a new id once the input is known to be valid
+            int id = isUpdate ? selectedPart.getId() : inventory.getPartIds().next();
+
             // Save correct Part type based on source Radio Button selection
             if (sourceToggleGroup.getSelectedToggle().equals(inHouseRadioButton)) {
                 int machineId = Integer.parseInt(sourceTextField.getText());
@@ -163,8 +176,7 @@ public class PartViewController implements Initializable {
 
             // Update or Save the part accordingly
             if (isUpdate) {
-                int existingIndex = inventory.getAllParts().indexOf(selectedPart);
-                inventory.updatePart(existingIndex, newPart);
+                inventory.updatePart(newPart);
             } else {
                 inventory.addPart(newPart);
             }
@@ -6,23 +6,23 @@ package info.ryandorman.inventorysystem.controller;
  */
 
 import info.ryandorman.inventorysystem.model.*;
+import info.ryandorman.inventorysystem.utilities.BackgroundSearch;
+import info.ryandorman.inventorysystem.utilities.IntHashSet;
 import info.ryandorman.inventorysystem.utilities.JavaFXUtilities;
+import info.ryandorman.inventorysystem.utilities.ViewCache;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Comparator;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
@@ -33,6 +33,8 @@ public class ProductViewController implements Initializable {
     private Product selectedProduct;
     private ObservableList<Part> selectedParts;
     private ObservableList<Part> unselectedParts;
+    private IntHashSet selectedPartIds;
+    private BackgroundSearch<ObservableList<Part>> partSearch;
 
     // View Title
     @FXML
@@ -87,26 +89,40 @@ public class ProductViewController implements Initializable {
         priceTextField.setTextFormatter(new TextFormatter<>(JavaFXUtilities.truncatePrice, null, JavaFXUtilities.isDouble));
 
         // Setup All Parts Table View Columns
-        allPartsIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        allPartsNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        allPartsStockColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        allPartsPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        allPartsIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getId));
+        allPartsNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getName));
+        allPartsStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getStock));
+        allPartsPriceColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getPrice));
 
         // Setup Selected Parts Table View Columns
-        selectedPartsIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        selectedPartsNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        selectedPartsStockColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        selectedPartsPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        selectedPartsIdColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getId));
+        selectedPartsNameColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getName));
+        selectedPartsStockColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getStock));
+        selectedPartsPriceColumn.setCellValueFactory(JavaFXUtilities.cellValue(Part::getPrice));
+
+        // Search as the user types, running lookups off the FX thread
+        partSearch = new BackgroundSearch<>(this::findParts, this::showFoundParts);
+        allPartsSearchField.textProperty().addListener((observable, oldValue, newValue) -> onSearchParts());
     }
 
     public void initData(Inventory inventory, Product selectedProduct) {
         this.inventory = inventory;
         this.selectedProduct = selectedProduct;
 
+        // The View is cached, so clear what the last Add or Modify left behind
+        title.setText("Add Product");
+        idTextField.clear();
+        nameTextField.clear();
+        stockTextField.clear();
+        priceTextField.clear();
+        minTextField.clear();
+        maxTextField.clear();
+        allPartsSearchField.clear();
+
         // Determine if the user is performing an Add or Modify
         if (selectedProduct != null) {
             // Set correct data for Modify Table Views
-            this.selectedParts = selectedProduct.getAllAssociatedParts();
+            this.selectedParts = FXCollections.observableArrayList(selectedProduct.getAllAssociatedParts());
 
             // Setup UI
             title.setText("Modify Product");
@@ -121,7 +137,6 @@ public class ProductViewController implements Initializable {
         } else {
             // Set correct data for Add Table Views
             this.selectedParts = FXCollections.observableArrayList();
-            this.unselectedParts = inventory.getAllParts();
         }
 
         // Load data into Table Views
@@ -135,36 +150,49 @@ public class ProductViewController implements Initializable {
 
         // Determine if we are clearing a search or starting a new one
         if (searchValue == null || searchValue.isEmpty()) {
-            // If no value entered, clear search and selection
+            // If no value entered, drop any running search and clear search and selection
+            partSearch.cancel();
             allPartsTableView.setItems(unselectedParts);
             allPartsTableView.getSelectionModel().clearSelection();
         } else {
-            // Otherwise search using the id or name
-            ObservableList<Part> foundParts = FXCollections.observableArrayList();
-
-            // Assume we got an int, if that fails we will search by String
-            try {
-                int id = Integer.parseInt(searchValue);
-                Part foundPart = unselectedParts.stream()
-                        .filter(part -> id == part.getId())
-                        .findAny()
-                        .orElse(null);
-
-                // If we find a result add it to the list of search results
-                if (foundPart != null) {
-                    foundParts.add(foundPart);
-                }
+            // Otherwise search using the id or name in the background
+            partSearch.submit(searchValue);
+        }
+    }
+
+    private ObservableList<Part> findParts(String searchValue) {
+        // Price and stock ranges such as "price:10..20" or "stock:<5" go to the sorted indexes
+        RangeQuery rangeQuery = RangeQuery.parse(searchValue);
+        if (rangeQuery != null) {
+            return rangeQuery.lookupParts(inventory);
+        }
+
+        ObservableList<Part> foundParts = FXCollections.observableArrayList();
 
-            } catch (NumberFormatException nfe) {
-                foundParts = unselectedParts.stream()
-                        .filter(part -> part.getName().toLowerCase().contains(searchValue.toLowerCase()))
-                        .collect(Collectors.toCollection(FXCollections::observableArrayList));;
+        // Assume we got an int, if that fails we will search by String
+        try {
+            int id = Integer.parseInt(searchValue);
+            Part foundPart = inventory.lookupPart(id);
+
+            // If we find a result add it to the list of search results
+            if (foundPart != null) {
+                foundParts.add(foundPart);
             }
 
-            // Set the table with the found results and select the first entry
-            allPartsTableView.setItems(foundParts);
-            allPartsTableView.getSelectionModel().clearAndSelect(0);
+        } catch (NumberFormatException nfe) {
+            foundParts = inventory.lookupPart(searchValue);
         }
+
+        return foundParts;
+    }
+
+    private void showFoundParts(ObservableList<Part> foundParts) {
+        // Parts already on the Product are not offered again; this runs on the FX thread that owns selectedParts
+        foundParts.removeIf(part -> selectedPartIds.contains(part.getId()));
+
+        // Set the table with the found results and select the first entry
+        allPartsTableView.setItems(foundParts);
+        allPartsTableView.getSelectionModel().clearAndSelect(0);
     }
 
     public void onAddPart() {
@@ -172,7 +200,17 @@ public class ProductViewController implements Initializable {
 
         if (selectedPart != null) {
             selectedParts.add(selectedPart);
-            setUnselectedParts();
+            selectedPartIds.add(selectedPart.getId());
+
+            // Remove just this Part from the table it was picked from, and from the unselected list if that was a search
+            ObservableList<Part> shownParts = allPartsTableView.getItems();
+            shownParts.remove(allPartsTableView.getSelectionModel().getSelectedIndex());
+            if (shownParts != unselectedParts) {
+                int index = unselectedIndexOf(selectedPart.getId());
+                if (index >= 0) {
+                    unselectedParts.remove(index);
+                }
+            }
         }
     }
 
@@ -183,7 +221,25 @@ public class ProductViewController implements Initializable {
 
         if (selectedPart != null && userConfirmed) {
             selectedParts.remove(selectedPart);
-            setUnselectedParts();
+
+            // Offer the Part again only if it still exists and no other copy of it remains selected
+            int partId = selectedPart.getId();
+            if (selectedParts.stream().noneMatch(part -> part.getId() == partId)) {
+                selectedPartIds.remove(partId);
+
+                Part inventoryPart = inventory.lookupPart(partId);
+                if (inventoryPart != null) {
+                    int index = unselectedIndexOf(partId);
+                    if (index < 0) {
+                        unselectedParts.add(-index - 1, inventoryPart);
+                    }
+
+                    // Search results are their own list, so run the search again to show the Part if it matches
+                    if (allPartsTableView.getItems() != unselectedParts) {
+                        onSearchParts();
+                    }
+                }
+            }
         }
     }
 
@@ -198,7 +254,6 @@ public class ProductViewController implements Initializable {
             }
 
             // Get field values
-            int id = isUpdate ? selectedProduct.getId() : Product.getCount() + 1;
             String name = nameTextField.getText().trim();
             int stock = Integer.parseInt(stockTextField.getText());
             double price = Double.parseDouble(priceTextField.getText());
@@ -207,8 +262,7 @@ public class ProductViewController implements Initializable {
 
             // Validate the a part was selected and the stock, min, max, and price are logical.
             // If not warn the User and stop the save
-            double totalPriceOfParts = selectedParts.stream()
-                    .reduce(0.0, (partialPrice, part) -> partialPrice + part.getPrice(), Double::sum);
+            long costOfParts = InventoryValuation.costCents(selectedParts);
 
             if (max < min) {
                 JavaFXUtilities.warnUser("Warning", "Invalid Min and Max Inputs",
@@ -220,7 +274,7 @@ public class ProductViewController implements Initializable {
                         "Please make sure the number in stock is within the minimum and maximum.");
                 stockTextField.clear();
                 return;
-            } else if (price < totalPriceOfParts) {
+            } else if (Money.toCents(price) < costOfParts) {
                 JavaFXUtilities.warnUser("Warning", "Price Too Low",
                         "Please make sure the price of the Product is greater than the cost of its Parts.");
                 return;
@@ -230,6 +284,9 @@ public class ProductViewController implements Initializable {
                 return;
             }
 
+            // Only draw a new id once the input is known to be valid
+            int id = isUpdate ? selectedProduct.getId() : inventory.getProductIds().next();
+
             // Create the Product and associate its Parts
             newProduct = new Product(id, name, price, stock, min, max);
             for (Part selectedPart : selectedParts) {
@@ -238,8 +295,7 @@ public class ProductViewController implements Initializable {
 
             // Update or Save the part accordingly
             if (isUpdate) {
-                int existingIndex = inventory.getAllProducts().indexOf(selectedProduct);
-                inventory.updateProduct(existingIndex, newProduct);
+                inventory.updateProduct(newProduct);
             } else {
                 inventory.addProduct(newProduct);
             }
@@ -262,25 +318,46 @@ public class ProductViewController implements Initializable {
     }
 
     private void loadMainView(ActionEvent actionEvent) throws IOException {
-        FXMLLoader loader = new FXMLLoader();
-        loader.setLocation(getClass().getResource("/view/MainView.fxml"));
-        Parent mainViewParent = loader.load();
-        MainViewController controller = loader.getController();
-
-        // Pass Store ref to Controller
-        controller.initData(inventory);
+        // The Main View keeps its Store and Table Views, so it only needs its searches cleared
+        ViewCache.View<MainViewController> mainView = ViewCache.get(MainViewController.MAIN_VIEW);
+        mainView.getController().reset();
 
-        // Get the Main Stage info and set the Main View Scene
+        // Get the Main Stage info and swap the Main View back in
         Stage window = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        window.setTitle(window.getTitle().substring(0, window.getTitle().indexOf('-')));
-        window.setScene(new Scene(mainViewParent, 1200, 800));
-        window.show();
+        window.setTitle(window.getTitle().substring(0, window.getTitle().indexOf('-')).trim());
+        ViewCache.show(window, mainView, 1200, 800);
     }
 
     private void setUnselectedParts() {
+        // Build the unselected list once, in id order; onAddPart and onDeletePart then move single Parts
+        // between the lists, finding their row by id
+        this.selectedPartIds = new IntHashSet(selectedParts.size());
+        for (Part part : selectedParts) {
+            selectedPartIds.add(part.getId());
+        }
+
         this.unselectedParts = inventory.getAllParts().stream()
-                .filter(part -> !selectedParts.contains(part))
+                .filter(part -> !selectedPartIds.contains(part.getId()))
+                .sorted(Comparator.comparingInt(Part::getId))
                 .collect(Collectors.toCollection(FXCollections::observableArrayList));
         allPartsTableView.setItems(unselectedParts);
     }
+
+    private int unselectedIndexOf(int partId) {
+        // Row of the Part in the unselected list, or -(insertion point) - 1 when it is not there
+        int low = 0;
+        int high = unselectedParts.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = unselectedParts.get(mid).getId();
+            if (midId < partId) {
+                low = mid + 1;
+            } else if (midId > partId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
 }
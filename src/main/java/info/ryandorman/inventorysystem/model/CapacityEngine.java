@@ -0,0 +1,217 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.utilities.IntHashSet;
+import info.ryandorman.inventorysystem.utilities.IntObjectMap;
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * Keeps, for every Product, how many could be built from the current stock of its Parts and what
+ * those Parts cost. Each Product's associated Parts are reduced once to a bill of materials of
+ * part ids and quantities, and each line of the bill keeps what its Part allows and costs. The
+ * Inventory's reverse index from Parts to Products means a change to one Part only updates that
+ * Part's line in the Products that use it. Runs on the FX thread alongside the Inventory.
+ */
+public class CapacityEngine {
+
+    private final Inventory inventory;
+    private final IntObjectMap<BillOfMaterials> bills = new IntObjectMap<>();
+    private final List<IntConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    // Held here because the Inventory only keeps weak references to them
+    private final ListChangeListener<Part> partsListener = this::onPartsChanged;
+    private final ListChangeListener<Product> productsListener = this::onProductsChanged;
+
+    public CapacityEngine(Inventory inventory) {
+        this.inventory = inventory;
+
+        for (Product product : inventory.getAllProducts()) {
+            addBill(product);
+        }
+
+        // Weak so a Main View that is replaced does not keep its engine alive through the Inventory
+        inventory.getAllParts().addListener(new WeakListChangeListener<>(partsListener));
+        inventory.getAllProducts().addListener(new WeakListChangeListener<>(productsListener));
+    }
+
+    public int getBuildable(int productId) {
+        BillOfMaterials bill = bills.get(productId);
+        return bill == null ? 0 : bill.buildable;
+    }
+
+    public double getPartCost(int productId) {
+        return Money.toDouble(getPartCostCents(productId));
+    }
+
+    public long getPartCostCents(int productId) {
+        BillOfMaterials bill = bills.get(productId);
+        return bill == null ? 0 : bill.partCost;
+    }
+
+    public void addListener(IntConsumer listener) {
+        // Told the id of each Product whose capacity or cost changed
+        listeners.add(listener);
+    }
+
+    public void removeListener(IntConsumer listener) {
+        listeners.remove(listener);
+    }
+
+    private void onPartsChanged(ListChangeListener.Change<? extends Part> change) {
+        // Any Part added, removed, replaced or changed in place may move its Products' capacity.
+        // Changes are applied in order, so a Part replaced under the same id ends up on its line.
+        IntHashSet affectedProducts = new IntHashSet();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    Part part = change.getList().get(i);
+                    updateLines(part.getId(), part, affectedProducts);
+                }
+                continue;
+            }
+            for (Part part : change.getRemoved()) {
+                updateLines(part.getId(), null, affectedProducts);
+            }
+            for (Part part : change.getAddedSubList()) {
+                updateLines(part.getId(), part, affectedProducts);
+            }
+        }
+
+        affectedProducts.forEach(productId -> {
+            BillOfMaterials bill = bills.get(productId);
+            if (bill != null) {
+                publish(bill);
+            }
+        });
+    }
+
+    private void onProductsChanged(ListChangeListener.Change<? extends Product> change) {
+        while (change.next()) {
+            if (change.wasPermutated() || change.wasUpdated()) {
+                continue;
+            }
+            for (Product product : change.getRemoved()) {
+                removeBill(product);
+            }
+            for (Product product : change.getAddedSubList()) {
+                addBill(product);
+            }
+        }
+    }
+
+    private void updateLines(int partId, Part part, IntHashSet affectedProducts) {
+        for (Product product : inventory.lookupProductsUsing(partId)) {
+            BillOfMaterials bill = bills.get(product.getId());
+            if (bill != null) {
+                bill.setLine(Arrays.binarySearch(bill.partIds, partId), part);
+                affectedProducts.add(product.getId());
+            }
+        }
+    }
+
+    private void addBill(Product product) {
+        BillOfMaterials bill = new BillOfMaterials(product);
+        // Parts are looked up by id so a Part replaced in the Part view is costed at its current values
+        for (int i = 0; i < bill.partIds.length; i++) {
+            bill.setLine(i, inventory.lookupPart(bill.partIds[i]));
+        }
+        bills.put(product.getId(), bill);
+        publish(bill);
+    }
+
+    private void removeBill(Product product) {
+        // Only drop the bill if it still belongs to this Product and not to a replacement with the same id
+        BillOfMaterials bill = bills.get(product.getId());
+        if (bill != null && bill.product == product) {
+            bills.remove(product.getId());
+            notifyListeners(product.getId());
+        }
+    }
+
+    private void publish(BillOfMaterials bill) {
+        if (bill.buildable != bill.publishedBuildable || bill.partCost != bill.publishedPartCost) {
+            bill.publishedBuildable = bill.buildable;
+            bill.publishedPartCost = bill.partCost;
+            notifyListeners(bill.product.getId());
+        }
+    }
+
+    private void notifyListeners(int productId) {
+        for (IntConsumer listener : listeners) {
+            listener.accept(productId);
+        }
+    }
+
+    private static class BillOfMaterials {
+        private final Product product;
+        private final int[] partIds;
+        private final int[] quantities;
+        private final int[] lineBuildable;
+        private final long[] lineCost;
+        private int buildable;
+        private long partCost;
+        private int publishedBuildable = -1;
+        private long publishedPartCost = -1;
+
+        private BillOfMaterials(Product product) {
+            this.product = product;
+
+            // A Part associated more than once is needed that many times per Product
+            List<Part> associatedParts = product.getAllAssociatedParts();
+            int[] ids = new int[associatedParts.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = associatedParts.get(i).getId();
+            }
+            Arrays.sort(ids);
+
+            int distinct = 0;
+            int[] counts = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                if (distinct > 0 && ids[distinct - 1] == ids[i]) {
+                    counts[distinct - 1]++;
+                } else {
+                    ids[distinct] = ids[i];
+                    counts[distinct++] = 1;
+                }
+            }
+
+            this.partIds = Arrays.copyOf(ids, distinct);
+            this.quantities = Arrays.copyOf(counts, distinct);
+            this.lineBuildable = new int[distinct];
+            this.lineCost = new long[distinct];
+        }
+
+        private void setLine(int line, Part part) {
+            // A missing Part leaves nothing to build with and nothing to cost. Overflowing costs
+            // throw before anything is changed rather than wrapping around.
+            int newBuildable = part == null ? 0 : Math.max(part.getStock(), 0) / quantities[line];
+            long newCost = part == null ? 0 : Math.multiplyExact(part.getPriceCents(), (long) quantities[line]);
+            long newPartCost = Math.addExact(Math.subtractExact(partCost, lineCost[line]), newCost);
+
+            int oldBuildable = lineBuildable[line];
+            lineBuildable[line] = newBuildable;
+            lineCost[line] = newCost;
+            partCost = newPartCost;
+
+            if (newBuildable < buildable) {
+                buildable = newBuildable;
+            } else if (oldBuildable == buildable && newBuildable > oldBuildable) {
+                // This line was the limit, so another one may be now
+                buildable = Arrays.stream(lineBuildable).min().orElse(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+/**
+ * One change to the Inventory as published on its change stream. Events live in the slots of a
+ * {@link info.ryandorman.inventorysystem.utilities.RingBuffer} and in each reader's scratch copy and
+ * are reused, so a handler must copy out anything it keeps. Sequences increase by one per event, so
+ * a gap tells a reader it fell behind and should resynchronise from {@link Inventory#snapshot()}.
+ * The id, stock and price are as they were when published; the Part or Product itself is shared
+ * with the FX thread and may have changed since.
+ */
+public class ChangeEvent {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+        STOCK_CHANGED
+    }
+
+    private long sequence;
+    private Type type;
+    private boolean part;
+    private int id;
+    private Object element;
+    private int stock;
+    private int previousStock;
+    private long priceCents;
+
+    void set(long sequence, Type type, boolean part, int id, Object element, int stock, int previousStock,
+             long priceCents) {
+        this.sequence = sequence;
+        this.type = type;
+        this.part = part;
+        this.id = id;
+        this.element = element;
+        this.stock = stock;
+        this.previousStock = previousStock;
+        this.priceCents = priceCents;
+    }
+
+    public void copyTo(ChangeEvent other) {
+        other.set(sequence, type, part, id, element, stock, previousStock, priceCents);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isPart() {
+        return part;
+    }
+
+    public boolean isProduct() {
+        return !part;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Part getPart() {
+        return part ? (Part) element : null;
+    }
+
+    public Product getProduct() {
+        return part ? null : (Product) element;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public int getPreviousStock() {
+        // Stock before the change for updates and stock changes, otherwise the same as getStock()
+        return previousStock;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + (part ? "Part " : "Product ") + id
+                + " stock " + previousStock + "->" + stock + " price " + Money.format(priceCents);
+    }
+}
@@ -0,0 +1,294 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ListChangeListener;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Undo and redo for edits to the Inventory. Each change the Inventory's lists report is kept as the
+ * runs of elements it removed and added at each position, holding references to the Parts and
+ * Products rather than copies of the lists, so undoing a large import is a single range removal.
+ * Reordering, such as sorting a table, is not an edit and is not recorded; a step whose rows have
+ * moved since is applied by finding its elements instead of by position. Edits made inside
+ * {@link #group(Runnable)}, or between {@link #beginGroup()} and {@link #endGroup()}, are undone
+ * together. The history is bounded by both the number of edits and the number of element
+ * references kept, dropping the oldest edits first. Runs on the FX thread alongside the Inventory.
+ */
+public class EditJournal implements Closeable {
+
+    public static final int DEFAULT_MAX_EDITS = 100;
+    public static final int DEFAULT_MAX_ELEMENTS = 1_000_000;
+
+    private final Inventory inventory;
+    private final int maxEdits;
+    private final int maxElements;
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+    private final ReadOnlyBooleanWrapper canUndo = new ReadOnlyBooleanWrapper();
+    private final ReadOnlyBooleanWrapper canRedo = new ReadOnlyBooleanWrapper();
+    private final ListChangeListener<Part> partsListener = change -> record(change, true);
+    private final ListChangeListener<Product> productsListener = change -> record(change, false);
+
+    private int retainedElements;
+    private int groupDepth;
+    private Edit openGroup;
+    private boolean replaying;
+
+    public EditJournal(Inventory inventory) {
+        this(inventory, DEFAULT_MAX_EDITS, DEFAULT_MAX_ELEMENTS);
+    }
+
+    public EditJournal(Inventory inventory, int maxEdits, int maxElements) {
+        this.inventory = inventory;
+        this.maxEdits = maxEdits;
+        this.maxElements = maxElements;
+
+        inventory.getAllParts().addListener(partsListener);
+        inventory.getAllProducts().addListener(productsListener);
+    }
+
+    public void group(Runnable edits) {
+        // Everything changed while the group is open is undone and redone as one edit
+        beginGroup();
+        try {
+            edits.run();
+        } finally {
+            endGroup();
+        }
+    }
+
+    public void beginGroup() {
+        // For edits spread over several FX thread tasks, such as the batches of an import
+        if (groupDepth++ == 0) {
+            openGroup = new Edit();
+        }
+    }
+
+    public void endGroup() {
+        if (groupDepth == 0) {
+            throw new IllegalStateException("No group is open");
+        }
+        if (--groupDepth == 0) {
+            Edit edit = openGroup;
+            openGroup = null;
+            push(edit);
+        }
+    }
+
+    public boolean undo() {
+        if (undoStack.isEmpty() || groupDepth > 0) {
+            return false;
+        }
+
+        Edit edit = undoStack.pop();
+        replay(edit, false);
+        redoStack.push(edit);
+        updateState();
+        return true;
+    }
+
+    public boolean redo() {
+        if (redoStack.isEmpty() || groupDepth > 0) {
+            return false;
+        }
+
+        Edit edit = redoStack.pop();
+        replay(edit, true);
+        undoStack.push(edit);
+        updateState();
+        return true;
+    }
+
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        retainedElements = 0;
+        updateState();
+    }
+
+    public ReadOnlyBooleanProperty canUndoProperty() {
+        return canUndo.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty canRedoProperty() {
+        return canRedo.getReadOnlyProperty();
+    }
+
+    @Override
+    public void close() {
+        inventory.getAllParts().removeListener(partsListener);
+        inventory.getAllProducts().removeListener(productsListener);
+        clear();
+    }
+
+    private void record(ListChangeListener.Change<?> change, boolean parts) {
+        if (replaying) {
+            return;
+        }
+
+        Edit edit = openGroup != null ? openGroup : new Edit();
+        while (change.next()) {
+            // Reordering changes no content, and changes made in place carry no earlier state,
+            // so only elements coming and going are kept
+            if (!change.wasPermutated() && !change.wasUpdated()) {
+                edit.add(new Step(parts, change.getFrom(),
+                        change.getRemoved().toArray(), change.getAddedSubList().toArray()));
+            }
+        }
+
+        if (edit != openGroup) {
+            push(edit);
+        }
+    }
+
+    private void push(Edit edit) {
+        if (edit.steps.isEmpty()) {
+            return;
+        }
+
+        // A new edit makes the undone ones unreachable
+        for (Edit undone : redoStack) {
+            retainedElements -= undone.weight;
+        }
+        redoStack.clear();
+
+        undoStack.push(edit);
+        retainedElements += edit.weight;
+
+        while (!undoStack.isEmpty() && (undoStack.size() > maxEdits || retainedElements > maxElements)) {
+            retainedElements -= undoStack.removeLast().weight;
+        }
+        updateState();
+    }
+
+    private void replay(Edit edit, boolean forward) {
+        // One batch so listeners see a single change per list for the whole edit
+        replaying = true;
+        try {
+            inventory.batch(inv -> {
+                if (forward) {
+                    for (Step step : edit.steps) {
+                        step.apply(list(step), true);
+                    }
+                } else {
+                    for (int i = edit.steps.size() - 1; i >= 0; i--) {
+                        Step step = edit.steps.get(i);
+                        step.apply(list(step), false);
+                    }
+                }
+            });
+        } finally {
+            replaying = false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private InventoryList<Object> list(Step step) {
+        return (InventoryList<Object>) (step.parts
+                ? inventory.getAllParts()
+                : inventory.getAllProducts());
+    }
+
+    private void updateState() {
+        canUndo.set(!undoStack.isEmpty());
+        canRedo.set(!redoStack.isEmpty());
+    }
+
+    private static class Edit {
+        private final List<Step> steps = new ArrayList<>(1);
+        private int weight;
+
+        private void add(Step step) {
+            steps.add(step);
+            weight += step.weight();
+        }
+    }
+
+    private static class Step {
+        private final boolean parts;
+        private final int from;
+        private final Object[] removed;
+        private final Object[] added;
+
+        private Step(boolean parts, int from, Object[] removed, Object[] added) {
+            this.parts = parts;
+            this.from = from;
+            this.removed = removed;
+            this.added = added;
+        }
+
+        private int weight() {
+            return removed.length + added.length;
+        }
+
+        private void apply(InventoryList<Object> list, boolean forward) {
+            Object[] taken = forward ? removed : added;
+            Object[] restored = forward ? added : removed;
+
+            if (!inPlace(list, taken)) {
+                applyMoved(list, taken, restored);
+                return;
+            }
+
+            // Positions present both before and after are replaced in place, the rest removed or inserted
+            int common = Math.min(taken.length, restored.length);
+            for (int i = 0; i < common; i++) {
+                list.set(from + i, restored[i]);
+            }
+            if (taken.length > common) {
+                list.subList(from + common, from + taken.length).clear();
+            } else if (restored.length > common) {
+                list.addAll(from + common, Arrays.asList(restored).subList(common, restored.length));
+            }
+        }
+
+        private boolean inPlace(List<Object> list, Object[] taken) {
+            if (from + taken.length > list.size()) {
+                return false;
+            }
+            for (int i = 0; i < taken.length; i++) {
+                if (list.get(from + i) != taken[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void applyMoved(InventoryList<Object> list, Object[] taken, Object[] restored) {
+            // The rows were reordered since, so replace each element where it now is, take out the
+            // rest in one pass and put anything new back as near its old position as the list allows
+            int common = Math.min(taken.length, restored.length);
+            for (int i = 0; i < common; i++) {
+                int index = list.positionOf(taken[i]);
+                if (index >= 0) {
+                    list.set(index, restored[i]);
+                } else {
+                    list.add(Math.min(from + i, list.size()), restored[i]);
+                }
+            }
+            if (taken.length > common) {
+                Set<Object> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+                gone.addAll(Arrays.asList(taken).subList(common, taken.length));
+                list.removeAll(gone);
+            } else if (restored.length > common) {
+                list.addAll(Math.min(from + common, list.size()),
+                        Arrays.asList(restored).subList(common, restored.length));
+            }
+        }
+    }
+}
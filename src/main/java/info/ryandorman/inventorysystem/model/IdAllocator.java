@@ -0,0 +1,121 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Hands out unique ids for new Parts or Products. Ids are reserved from a shared high-water mark
+ * in blocks, and each thread draws from its own block, so the mark is touched once per block
+ * instead of once per id. An id is never handed out twice, including after the Part or Product
+ * that had it is deleted; ids left unused in a block are simply skipped.
+ * <p>
+ * Ids assigned by hand, such as ones loaded from storage, must be passed to {@link #advancePast(int)}
+ * so later reservations start after them. Ids that may already be in use, such as ones read from an
+ * import, go through {@link #claim(int)} instead, which refuses any id that could have been handed out.
+ */
+public class IdAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private static final IntConsumer NO_LISTENER = highWaterMark -> { };
+
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+    private final int blockSize;
+    private final ThreadLocal<Block> threadBlocks = new ThreadLocal<>();
+    private volatile IntConsumer reservationListener = NO_LISTENER;
+
+    public IdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int next() {
+        Block block = threadBlocks.get();
+        if (block == null || !block.hasNext()) {
+            block = reserve(blockSize);
+            threadBlocks.set(block);
+        }
+        return block.next();
+    }
+
+    public Block reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+
+        int last = highWaterMark.accumulateAndGet(count, (mark, size) -> {
+            if (mark > Integer.MAX_VALUE - size) {
+                throw new IllegalStateException("No ids left to reserve");
+            }
+            return mark + size;
+        });
+        reservationListener.accept(last);
+        return new Block(last - count + 1, count);
+    }
+
+    public void advancePast(int id) {
+        // Read first so the common case of an id already below the mark never writes to it
+        if (id > highWaterMark.get()) {
+            highWaterMark.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    public int claim(int id) {
+        // Takes an id assigned by hand only if no reservation or claim has reached it yet, and returns
+        // the mark it replaced; the ids in between are skipped and only the caller may still use them
+        int mark = highWaterMark.get();
+        while (id > mark) {
+            if (highWaterMark.compareAndSet(mark, id)) {
+                return mark;
+            }
+            mark = highWaterMark.get();
+        }
+        return -1;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public void setReservationListener(IntConsumer listener) {
+        // Told the new mark after every reservation so it can be persisted
+        this.reservationListener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * A contiguous range of reserved ids, meant to be used by one thread.
+     */
+    public static final class Block {
+        private int next;
+        private int remaining;
+
+        private Block(int first, int count) {
+            this.next = first;
+            this.remaining = count;
+        }
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public int next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return next++;
+        }
+    }
+}
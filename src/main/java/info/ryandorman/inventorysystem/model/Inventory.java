@@ -5,20 +5,220 @@ package info.ryandorman.inventorysystem.model;
  *   ID: 001002824
  */
 
+import info.ryandorman.inventorysystem.utilities.IntHashSet;
+import info.ryandorman.inventorysystem.utilities.IntObjectMap;
+import info.ryandorman.inventorysystem.utilities.RingBuffer;
+import info.ryandorman.inventorysystem.utilities.SortedIndex;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 public class Inventory {
 
-    private ObservableList<Part> allParts;
-    private ObservableList<Product> allProducts;
+    private InventoryList<Part> allParts;
+    private InventoryList<Product> allProducts;
+
+    // Primary key indexes, updated by the lists as each element is added or removed
+    private IntObjectMap<Part> partsById;
+    private IntObjectMap<Product> productsById;
+
+    // Trigram indexes backing the name searches
+    private NameIndex<Part> partNames;
+    private NameIndex<Product> productNames;
+
+    // Reverse index from part id to the ids of the Products associated with that Part
+    private IntObjectMap<IntHashSet> productsByPart;
+
+    // Part ids each Product was indexed under, since its associated Parts can be edited in place
+    private IntObjectMap<int[]> partIdsByProduct;
+
+    // Sorted indexes backing the price and stock range searches, prices keyed in cents
+    private SortedIndex partPrices;
+    private SortedIndex partStocks;
+    private SortedIndex productPrices;
+    private SortedIndex productStocks;
+
+    // Lookups may run on background search threads while the lists are edited on the FX thread
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    // Ids for new Parts and Products, kept ahead of every id that has been indexed. The views draw
+    // them one at a time on the FX thread, so they come out in sequence across restarts; imports
+    // reserve blocks of their own
+    private final IdAllocator partIds = new IdAllocator(1);
+    private final IdAllocator productIds = new IdAllocator(1);
+
+    // Change stream for readers on other threads, created when the first reader asks for it
+    public static final int CHANGE_STREAM_CAPACITY = 1 << 16;
+    private volatile RingBuffer<ChangeEvent> changes;
+
+    // Counts the changes delivered by either list, so snapshots of different states can be told apart
+    private long version;
+
+    // Nesting depth of batch(), and who to tell once an outermost batch has delivered both lists
+    private int batchDepth;
+    private Runnable batchListener;
 
 
     public Inventory() {
-        this.allParts = FXCollections.observableArrayList();
-        this.allProducts = FXCollections.observableArrayList();
+        this.partsById = new IntObjectMap<>();
+        this.productsById = new IntObjectMap<>();
+        this.partNames = new NameIndex<>(Part::getId, Part::getName);
+        this.productNames = new NameIndex<>(Product::getId, Product::getName);
+        this.productsByPart = new IntObjectMap<>();
+        this.partIdsByProduct = new IntObjectMap<>();
+        this.partPrices = new SortedIndex();
+        this.partStocks = new SortedIndex();
+        this.productPrices = new SortedIndex();
+        this.productStocks = new SortedIndex();
+
+        // The lists report each element as it comes and goes, so edits made through
+        // getAllParts()/getAllProducts() stay indexed even in the middle of a batch
+        this.allParts = new InventoryList<>(Part::getId, this::indexPart, this::unindexPart);
+        this.allProducts = new InventoryList<>(Product::getId, this::indexProduct, this::unindexProduct);
+        this.allParts.addListener((ListChangeListener<Part>) change -> version++);
+        this.allProducts.addListener((ListChangeListener<Product>) change -> version++);
+    }
+
+    private void indexPart(Part part) {
+        Part previous;
+        indexLock.writeLock().lock();
+        try {
+            previous = partsById.put(part.getId(), part);
+            partNames.add(part);
+            partPrices.put(part.getId(), part.getPriceCents());
+            partStocks.put(part.getId(), part.getStock());
+            partIds.advancePast(part.getId());
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        // A replacement is indexed before the Part it replaces is removed, so it shows up as an update
+        if (previous != part) {
+            publishChange(previous == null ? ChangeEvent.Type.ADDED : ChangeEvent.Type.UPDATED, true,
+                    part.getId(), part, part.getStock(), previous == null ? part.getStock() : previous.getStock(),
+                    part.getPriceCents());
+        }
+    }
+
+    private void unindexPart(Part part) {
+        boolean deleted = false;
+        indexLock.writeLock().lock();
+        try {
+            if (partsById.get(part.getId()) == part) {
+                partsById.remove(part.getId());
+                partPrices.remove(part.getId());
+                partStocks.remove(part.getId());
+                deleted = true;
+            }
+            partNames.remove(part);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        if (deleted) {
+            publishChange(ChangeEvent.Type.DELETED, true, part.getId(), part, part.getStock(), part.getStock(),
+                    part.getPriceCents());
+        }
+    }
+
+    private void indexProduct(Product product) {
+        Product previous;
+        indexLock.writeLock().lock();
+        try {
+            previous = productsById.put(product.getId(), product);
+            if (previous != null) {
+                // Replaced under the same id, so the old Product's Parts no longer point here
+                unindexAssociatedParts(previous.getId());
+            }
+            productNames.add(product);
+            productPrices.put(product.getId(), product.getPriceCents());
+            productStocks.put(product.getId(), product.getStock());
+            productIds.advancePast(product.getId());
+
+            ObservableList<Part> associatedParts = product.getAllAssociatedParts();
+            int[] partIds = new int[associatedParts.size()];
+            for (int i = 0; i < partIds.length; i++) {
+                partIds[i] = associatedParts.get(i).getId();
+                IntHashSet usedBy = productsByPart.get(partIds[i]);
+                if (usedBy == null) {
+                    usedBy = new IntHashSet();
+                    productsByPart.put(partIds[i], usedBy);
+                }
+                usedBy.add(product.getId());
+            }
+            partIdsByProduct.put(product.getId(), partIds);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        if (previous != product) {
+            publishChange(previous == null ? ChangeEvent.Type.ADDED : ChangeEvent.Type.UPDATED, false,
+                    product.getId(), product, product.getStock(),
+                    previous == null ? product.getStock() : previous.getStock(), product.getPriceCents());
+        }
+    }
+
+    private void unindexProduct(Product product) {
+        boolean deleted = false;
+        indexLock.writeLock().lock();
+        try {
+            if (productsById.get(product.getId()) == product) {
+                productsById.remove(product.getId());
+                productPrices.remove(product.getId());
+                productStocks.remove(product.getId());
+                unindexAssociatedParts(product.getId());
+                deleted = true;
+            }
+            productNames.remove(product);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        if (deleted) {
+            publishChange(ChangeEvent.Type.DELETED, false, product.getId(), product, product.getStock(),
+                    product.getStock(), product.getPriceCents());
+        }
+    }
+
+    private void publishChange(ChangeEvent.Type type, boolean part, int id, Object element, int stock,
+                               int previousStock, long priceCents) {
+        // Runs on the thread editing the Inventory, the stream's only writer
+        RingBuffer<ChangeEvent> ring = changes;
+        if (ring != null) {
+            long sequence = ring.claim();
+            ring.get(sequence).set(sequence, type, part, id, element, stock, previousStock, priceCents);
+            ring.publish(sequence);
+        }
+    }
+
+    private void unindexAssociatedParts(int productId) {
+        int[] partIds = partIdsByProduct.remove(productId);
+        if (partIds == null) {
+            return;
+        }
+
+        for (int partId : partIds) {
+            IntHashSet usedBy = productsByPart.get(partId);
+            if (usedBy != null) {
+                usedBy.remove(productId);
+                if (usedBy.isEmpty()) {
+                    productsByPart.remove(partId);
+                }
+            }
+        }
     }
 
     public void addPart(Part newPart) {
@@ -29,30 +229,123 @@ public class Inventory {
         allProducts.add(newProduct);
     }
 
+    public void addParts(Collection<? extends Part> newParts) {
+        allParts.addAll(newParts);
+    }
+
+    public void addProducts(Collection<? extends Product> newProducts) {
+        allProducts.addAll(newProducts);
+    }
+
     public Part lookupPart(int partId) {
-        return allParts.stream()
-                .filter(part -> partId == part.getId())
-                .findAny()
-                .orElse(null);
+        indexLock.readLock().lock();
+        try {
+            return partsById.get(partId);
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     public Product lookupProduct(int productId) {
-        return allProducts.stream()
-                .filter(product -> productId == product.getId())
-                .findAny()
-                .orElse(null);
+        indexLock.readLock().lock();
+        try {
+            return productsById.get(productId);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public List<Product> lookupProductsUsing(int partId) {
+        // Products associated with the Part, in id order, found without scanning every Product
+        indexLock.readLock().lock();
+        try {
+            IntHashSet usedBy = productsByPart.get(partId);
+            if (usedBy == null) {
+                return Collections.emptyList();
+            }
+
+            List<Product> products = new ArrayList<>(usedBy.size());
+            usedBy.forEach(productId -> products.add(productsById.get(productId)));
+            products.sort(Comparator.comparingInt(Product::getId));
+            return products;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public boolean isPartUsed(int partId) {
+        indexLock.readLock().lock();
+        try {
+            return productsByPart.containsKey(partId);
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     public ObservableList<Part> lookupPart(String partName) {
-        return allParts.stream()
-                .filter(part -> part.getName().toLowerCase().contains(partName.toLowerCase()))
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        indexLock.readLock().lock();
+        try {
+            return FXCollections.observableArrayList(partNames.search(partName));
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     public ObservableList<Product> lookupProduct(String productName) {
-        return allProducts.stream()
-                .filter(product -> product.getName().toLowerCase().contains(productName.toLowerCase()))
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        indexLock.readLock().lock();
+        try {
+            return FXCollections.observableArrayList(productNames.search(productName));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public ObservableList<Part> lookupPartsByPrice(double minPrice, double maxPrice) {
+        // Parts priced within the inclusive range, cheapest first, read straight off the price index
+        indexLock.readLock().lock();
+        try {
+            ObservableList<Part> foundParts = FXCollections.observableArrayList();
+            partPrices.forEachInRange(Money.ceilCents(minPrice), Money.floorCents(maxPrice),
+                    partId -> foundParts.add(partsById.get(partId)));
+            return foundParts;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public ObservableList<Part> lookupPartsByStock(int minStock, int maxStock) {
+        indexLock.readLock().lock();
+        try {
+            ObservableList<Part> foundParts = FXCollections.observableArrayList();
+            partStocks.forEachInRange(minStock, maxStock, partId -> foundParts.add(partsById.get(partId)));
+            return foundParts;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public ObservableList<Product> lookupProductsByPrice(double minPrice, double maxPrice) {
+        indexLock.readLock().lock();
+        try {
+            ObservableList<Product> foundProducts = FXCollections.observableArrayList();
+            productPrices.forEachInRange(Money.ceilCents(minPrice), Money.floorCents(maxPrice),
+                    productId -> foundProducts.add(productsById.get(productId)));
+            return foundProducts;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public ObservableList<Product> lookupProductsByStock(int minStock, int maxStock) {
+        indexLock.readLock().lock();
+        try {
+            ObservableList<Product> foundProducts = FXCollections.observableArrayList();
+            productStocks.forEachInRange(minStock, maxStock,
+                    productId -> foundProducts.add(productsById.get(productId)));
+            return foundProducts;
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     public void updatePart(int index, Part selectedPart) {
@@ -63,12 +356,224 @@ public class Inventory {
         allProducts.set(index, newProduct);
     }
 
+    public boolean updatePart(Part updatedPart) {
+        // Replaces the Part with the same id in place, located without scanning the list
+        Part current = lookupPart(updatedPart.getId());
+        if (current == null) {
+            return false;
+        }
+        allParts.set(allParts.positionOf(current), updatedPart);
+        return true;
+    }
+
+    public boolean updateProduct(Product updatedProduct) {
+        Product current = lookupProduct(updatedProduct.getId());
+        if (current == null) {
+            return false;
+        }
+        allProducts.set(allProducts.positionOf(current), updatedProduct);
+        return true;
+    }
+
     public boolean deletePart(Part selectedPart) {
-        return allParts.remove(selectedPart);
+        int index = allParts.positionOf(selectedPart);
+        if (index < 0) {
+            return false;
+        }
+        allParts.remove(index);
+        return true;
     }
 
     public boolean deleteProduct(Product selectedProduct) {
-        return allProducts.remove(selectedProduct);
+        int index = allProducts.positionOf(selectedProduct);
+        if (index < 0) {
+            return false;
+        }
+        allProducts.remove(index);
+        return true;
+    }
+
+    public boolean deletePart(int partId) {
+        Part part = lookupPart(partId);
+        return part != null && deletePart(part);
+    }
+
+    public boolean deleteProduct(int productId) {
+        Product product = lookupProduct(productId);
+        return product != null && deleteProduct(product);
+    }
+
+    public boolean deleteParts(Collection<? extends Part> selectedParts) {
+        if (selectedParts.isEmpty()) {
+            return false;
+        }
+
+        // Identity set so each row is checked in constant time during the single removal pass
+        Set<Part> toDelete = Collections.newSetFromMap(new IdentityHashMap<>());
+        toDelete.addAll(selectedParts);
+        return allParts.removeAll(toDelete);
+    }
+
+    public boolean deleteProducts(Collection<? extends Product> selectedProducts) {
+        if (selectedProducts.isEmpty()) {
+            return false;
+        }
+
+        Set<Product> toDelete = Collections.newSetFromMap(new IdentityHashMap<>());
+        toDelete.addAll(selectedProducts);
+        return allProducts.removeAll(toDelete);
+    }
+
+    public void updateParts(Map<Integer, ? extends Part> updatedParts) {
+        // Replace every Part whose id is in the map during one pass, delivered as one change
+        if (!updatedParts.isEmpty()) {
+            allParts.replaceAll(part -> {
+                Part updatedPart = updatedParts.get(part.getId());
+                return updatedPart != null ? updatedPart : part;
+            });
+        }
+    }
+
+    public void updateProducts(Map<Integer, ? extends Product> updatedProducts) {
+        if (!updatedProducts.isEmpty()) {
+            allProducts.replaceAll(product -> {
+                Product updatedProduct = updatedProducts.get(product.getId());
+                return updatedProduct != null ? updatedProduct : product;
+            });
+        }
+    }
+
+    public void refreshParts(Collection<? extends Part> changedParts) {
+        // Tells listeners these Parts were changed in place, so their rows are redrawn and saved
+        if (!changedParts.isEmpty()) {
+            Set<Part> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            changed.addAll(changedParts);
+            allParts.updated(positionsOf(allParts, reindexPartKeys(changed)));
+        }
+    }
+
+    public void refreshProducts(Collection<? extends Product> changedProducts) {
+        if (!changedProducts.isEmpty()) {
+            Set<Product> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            changed.addAll(changedProducts);
+            allProducts.updated(positionsOf(allProducts, reindexProductKeys(changed)));
+        }
+    }
+
+    private static <T> int[] positionsOf(InventoryList<T> list, Collection<T> elements) {
+        // Rows of the elements still in the list, in ascending order
+        int[] positions = new int[elements.size()];
+        int count = 0;
+        for (T element : elements) {
+            int index = list.positionOf(element);
+            if (index >= 0) {
+                positions[count++] = index;
+            }
+        }
+        positions = Arrays.copyOf(positions, count);
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    private List<Part> reindexPartKeys(Collection<Part> changedParts) {
+        // Price and stock may have been changed in place, so move their entries in the sorted indexes
+        // and publish the change; returns the Parts still in the Inventory
+        indexLock.writeLock().lock();
+        try {
+            List<Part> current = new ArrayList<>(changedParts.size());
+            for (Part part : changedParts) {
+                if (partsById.get(part.getId()) == part) {
+                    int previousStock = (int) partStocks.get(part.getId(), part.getStock());
+                    ChangeEvent.Type type = previousStock != part.getStock()
+                            ? ChangeEvent.Type.STOCK_CHANGED
+                            : ChangeEvent.Type.UPDATED;
+                    publishChange(type, true, part.getId(), part, part.getStock(), previousStock,
+                            part.getPriceCents());
+                    partPrices.put(part.getId(), part.getPriceCents());
+                    partStocks.put(part.getId(), part.getStock());
+                    current.add(part);
+                }
+            }
+            return current;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private List<Product> reindexProductKeys(Collection<Product> changedProducts) {
+        indexLock.writeLock().lock();
+        try {
+            List<Product> current = new ArrayList<>(changedProducts.size());
+            for (Product product : changedProducts) {
+                if (productsById.get(product.getId()) == product) {
+                    int previousStock = (int) productStocks.get(product.getId(), product.getStock());
+                    ChangeEvent.Type type = previousStock != product.getStock()
+                            ? ChangeEvent.Type.STOCK_CHANGED
+                            : ChangeEvent.Type.UPDATED;
+                    publishChange(type, false, product.getId(), product, product.getStock(), previousStock,
+                            product.getPriceCents());
+                    productPrices.put(product.getId(), product.getPriceCents());
+                    productStocks.put(product.getId(), product.getStock());
+                    current.add(product);
+                }
+            }
+            return current;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    public void batch(Consumer<Inventory> changes) {
+        // Indexes follow every step, but list listeners only see the combined result at the end.
+        // Not atomic: if changes throws, the edits made before it stay and are still delivered.
+        allParts.beginBatch();
+        allProducts.beginBatch();
+        batchDepth++;
+        try {
+            changes.accept(this);
+        } finally {
+            try {
+                // Parts first, so listeners hear of new Parts before the Products that use them
+                allParts.endBatch();
+                allProducts.endBatch();
+            } finally {
+                batchDepth--;
+            }
+        }
+
+        if (batchDepth == 0 && batchListener != null) {
+            batchListener.run();
+        }
+    }
+
+    public boolean isBatching() {
+        // While true, a listener on one list may be called before the other list has reported its changes
+        return batchDepth > 0;
+    }
+
+    public void setBatchListener(Runnable batchListener) {
+        this.batchListener = batchListener;
+    }
+
+    public synchronized RingBuffer.Reader<ChangeEvent> newChangeReader() {
+        // Each reader drains on its own thread; edits published before its creation are not seen
+        if (changes == null) {
+            changes = new RingBuffer<>(CHANGE_STREAM_CAPACITY, ChangeEvent::new, ChangeEvent::copyTo);
+        }
+        return changes.newReader();
+    }
+
+    public InventorySnapshot snapshot() {
+        // Taken on the FX thread like any other edit; the snapshot itself can then be read anywhere
+        return new InventorySnapshot(version, allParts.snapshot(), allProducts.snapshot());
+    }
+
+    public IdAllocator getPartIds() {
+        return partIds;
+    }
+
+    public IdAllocator getProductIds() {
+        return productIds;
     }
 
     public ObservableList<Part> getAllParts() {
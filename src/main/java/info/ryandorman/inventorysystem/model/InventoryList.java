@@ -0,0 +1,303 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.utilities.SnapshotList;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The ObservableList behind the Inventory's Parts and Products. Every element added or removed is
+ * reported to the Inventory straight away so its indexes never lag behind, while the change events
+ * seen by listeners can be held back with {@link #beginBatch()} and {@link #endBatch()} and then
+ * delivered as one coalesced change. The elements are kept in a {@link SnapshotList}, so an
+ * immutable copy for readers on other threads is taken in O(1).
+ */
+class InventoryList<T> extends ObservableListBase<T> implements RandomAccess {
+
+    private final SnapshotList<T> elements;
+    private final ToIntFunction<T> idOf;
+    private final Consumer<T> onAdded;
+    private final Consumer<T> onRemoved;
+
+    InventoryList(ToIntFunction<T> idOf, Consumer<T> onAdded, Consumer<T> onRemoved) {
+        this.elements = new SnapshotList<>(idOf);
+        this.idOf = idOf;
+        this.onAdded = onAdded;
+        this.onRemoved = onRemoved;
+    }
+
+    void beginBatch() {
+        beginChange();
+    }
+
+    void endBatch() {
+        endChange();
+    }
+
+    List<T> snapshot() {
+        return elements.snapshot();
+    }
+
+    int positionOf(T element) {
+        // Found through the chunk holding its id; only another element sharing the id forces a full scan
+        int index = elements.indexOfKey(idOf.applyAsInt(element));
+        if (index >= 0 && elements.get(index) == element) {
+            return index;
+        }
+        return elements.indexOf(element);
+    }
+
+    @Override
+    public T get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        elements.forEach(action);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return elements.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return elements.lastIndexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return elements.indexOf(o) >= 0;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        elements.add(index, element);
+        onAdded.accept(element);
+
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> col) {
+        return addAll(elements.size(), col);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> col) {
+        if (col.isEmpty()) {
+            return false;
+        }
+
+        elements.addAll(index, col);
+        for (T element : col) {
+            onAdded.accept(element);
+        }
+
+        beginChange();
+        nextAdd(index, index + col.size());
+        endChange();
+        return true;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        T previous = elements.set(index, element);
+        if (element != previous) {
+            // Index the replacement first so one with the same id is recognised as an update
+            onAdded.accept(element);
+            onRemoved.accept(previous);
+        }
+
+        beginChange();
+        nextSet(index, previous);
+        endChange();
+        return previous;
+    }
+
+    @Override
+    public T remove(int index) {
+        T previous = elements.remove(index);
+        onRemoved.accept(previous);
+
+        beginChange();
+        nextRemove(index, previous);
+        endChange();
+        return previous;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = elements.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+
+        List<T> range = elements.subList(fromIndex, toIndex);
+        List<T> removed = new ArrayList<>(range);
+        range.clear();
+        removed.forEach(onRemoved);
+
+        beginChange();
+        nextRemove(fromIndex, removed);
+        endChange();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> col) {
+        return removeWhere(col, true);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> col) {
+        return removeWhere(col, false);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        // Elements the operator hands back unchanged are left out, and each run of replaced
+        // elements is reported as a single replacement
+        beginChange();
+        int runStart = -1;
+        List<T> run = null;
+
+        for (int i = 0; i <= elements.size(); i++) {
+            T previous = i < elements.size() ? elements.get(i) : null;
+            T element = previous == null ? null : operator.apply(previous);
+
+            if (element != null && element != previous) {
+                elements.set(i, element);
+                onAdded.accept(element);
+                onRemoved.accept(previous);
+                if (run == null) {
+                    run = new ArrayList<>();
+                    runStart = i;
+                }
+                run.add(previous);
+            } else if (run != null) {
+                nextReplace(runStart, i, run);
+                run = null;
+            }
+        }
+        endChange();
+    }
+
+    void updated(int[] indexes) {
+        // Reports elements that changed in place, like a stock adjustment, without replacing them
+        beginChange();
+        for (int index : indexes) {
+            nextUpdate(index);
+        }
+        endChange();
+    }
+
+    @Override
+    public boolean setAll(Collection<? extends T> col) {
+        // A re-ordering of the same elements, as TableView sorting produces, is reported as a permutation
+        int[] permutation = permutationTo(col);
+
+        beginChange();
+        if (permutation != null) {
+            elements.clear();
+            elements.addAll(col);
+            nextPermutation(0, permutation.length, permutation);
+        } else {
+            clear();
+            addAll(col);
+        }
+        endChange();
+        return true;
+    }
+
+    private boolean removeWhere(Collection<?> col, boolean matching) {
+        // Compact in one pass, noting each run of removed elements at its position in the shrinking list
+        List<T> kept = new ArrayList<>(elements.size());
+        List<Integer> runStarts = new ArrayList<>();
+        List<List<T>> runs = new ArrayList<>();
+        List<T> run = null;
+
+        for (T element : elements) {
+            if (col.contains(element) == matching) {
+                if (run == null) {
+                    run = new ArrayList<>();
+                    runStarts.add(kept.size());
+                    runs.add(run);
+                }
+                run.add(element);
+            } else {
+                run = null;
+                kept.add(element);
+            }
+        }
+
+        if (runs.isEmpty()) {
+            return false;
+        }
+
+        elements.clear();
+        elements.addAll(kept);
+
+        beginChange();
+        for (int i = 0; i < runs.size(); i++) {
+            runs.get(i).forEach(onRemoved);
+            nextRemove(runStarts.get(i), runs.get(i));
+        }
+        endChange();
+        return true;
+    }
+
+    private int[] permutationTo(Collection<? extends T> col) {
+        if (col.size() != elements.size() || elements.isEmpty()) {
+            return null;
+        }
+
+        Map<T, Deque<Integer>> newPositions = new IdentityHashMap<>(col.size());
+        int position = 0;
+        for (T element : col) {
+            newPositions.computeIfAbsent(element, key -> new ArrayDeque<>(1)).add(position++);
+        }
+
+        int[] permutation = new int[elements.size()];
+        for (int i = 0; i < permutation.length; i++) {
+            Deque<Integer> positions = newPositions.get(elements.get(i));
+            if (positions == null || positions.isEmpty()) {
+                return null;
+            }
+            permutation[i] = positions.poll();
+        }
+        return permutation;
+    }
+}
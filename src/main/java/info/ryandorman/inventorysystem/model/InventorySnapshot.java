@@ -0,0 +1,40 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.List;
+
+/**
+ * Immutable view of the Inventory's Parts and Products at one moment, for readers such as reports
+ * and exports that should not see the lists change underneath them. Taken in O(1) by
+ * {@link Inventory#snapshot()} and safe to read from any thread while the Inventory keeps changing.
+ * The lists never change, and neither do the Parts and Products in them, except for Part stock
+ * levels that a {@link StockLedger} publishes in place.
+ */
+public class InventorySnapshot {
+
+    private final long version;
+    private final List<Part> parts;
+    private final List<Product> products;
+
+    InventorySnapshot(long version, List<Part> parts, List<Product> products) {
+        this.version = version;
+        this.parts = parts;
+        this.products = products;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+}
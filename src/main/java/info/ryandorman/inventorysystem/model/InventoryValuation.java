@@ -0,0 +1,81 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.utilities.ColumnAggregator;
+
+import java.util.Collection;
+
+/**
+ * Exact money totals over Parts and Products, in cents: what a set of Parts costs, what the stock on
+ * hand is worth, and the margin Products make over the Parts they are built from. Prices and stock
+ * levels are copied into primitive columns and summed by the {@link ColumnAggregator}. Pass the
+ * lists of an {@link InventorySnapshot} to run off the FX thread.
+ */
+public class InventoryValuation {
+
+    private InventoryValuation() {
+    }
+
+    public static long costCents(Collection<? extends Part> parts) {
+        Columns columns = new Columns(parts.size(), false);
+        parts.forEach(part -> columns.add(part.getPriceCents(), 0, 0));
+        return ColumnAggregator.get().sum(columns.prices, columns.size);
+    }
+
+    public static long partsValueCents(Collection<? extends Part> parts) {
+        // Price times stock on hand for every Part
+        Columns columns = new Columns(parts.size(), false);
+        parts.forEach(part -> columns.add(part.getPriceCents(), 0, part.getStock()));
+        return ColumnAggregator.get().sumOfProducts(columns.prices, columns.stocks, columns.size);
+    }
+
+    public static long productsValueCents(Collection<? extends Product> products) {
+        Columns columns = new Columns(products.size(), false);
+        products.forEach(product -> columns.add(product.getPriceCents(), 0, product.getStock()));
+        return ColumnAggregator.get().sumOfProducts(columns.prices, columns.stocks, columns.size);
+    }
+
+    public static long productsMarginCents(Collection<? extends Product> products) {
+        // Price less the cost of the associated Parts, times stock on hand, for every Product
+        Columns columns = new Columns(products.size(), true);
+        products.forEach(product ->
+                columns.add(product.getPriceCents(), partCost(product), product.getStock()));
+        return ColumnAggregator.get()
+                .sumOfDifferenceProducts(columns.prices, columns.costs, columns.stocks, columns.size);
+    }
+
+    private static long partCost(Product product) {
+        // Associated Parts are only a handful per Product, too few to be worth copying out
+        long cost = 0;
+        for (Part part : product.getAllAssociatedParts()) {
+            cost = Math.addExact(cost, part.getPriceCents());
+        }
+        return cost;
+    }
+
+    private static class Columns {
+        private final long[] prices;
+        private final long[] costs;
+        private final long[] stocks;
+        private int size;
+
+        private Columns(int capacity, boolean withCosts) {
+            this.prices = new long[capacity];
+            this.costs = withCosts ? new long[capacity] : null;
+            this.stocks = new long[capacity];
+        }
+
+        private void add(long price, long cost, long stock) {
+            prices[size] = price;
+            if (costs != null) {
+                costs[size] = cost;
+            }
+            stocks[size] = stock;
+            size++;
+        }
+    }
+}
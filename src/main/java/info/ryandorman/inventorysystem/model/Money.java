@@ -0,0 +1,59 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices held as whole cents in a primitive long, so sums and valuations are exact. Doubles are
+ * only used at the edges, for the views and the saved formats, and are rounded to the nearest cent
+ * on the way in.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    public static long parse(String text) {
+        // Exact for any number of digits; throws NumberFormatException like Double.parseDouble
+        return new BigDecimal(text.trim()).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    public static long ceilCents(double amount) {
+        // Lowest cent amount not below the bound, for the low end of a price range
+        return bound(amount, RoundingMode.CEILING);
+    }
+
+    public static long floorCents(double amount) {
+        // Highest cent amount not above the bound, for the high end of a price range
+        return bound(amount, RoundingMode.FLOOR);
+    }
+
+    private static long bound(double amount, RoundingMode mode) {
+        // Bounds beyond what a long of cents can hold, including the infinities, clamp to its range
+        if (Double.isNaN(amount)) {
+            return mode == RoundingMode.CEILING ? Long.MAX_VALUE : Long.MIN_VALUE;
+        } else if (amount >= 9e16) {
+            return Long.MAX_VALUE;
+        } else if (amount <= -9e16) {
+            return Long.MIN_VALUE;
+        }
+        return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, mode).longValue();
+    }
+}
@@ -0,0 +1,144 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.utilities.IntHashSet;
+import info.ryandorman.inventorysystem.utilities.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Incremental trigram index over lowercased names used for case-insensitive substring search.
+ * Each name is lowercased once when indexed; a query narrows candidates to the smallest posting
+ * set among its trigrams and then verifies them with a plain contains check.
+ */
+public class NameIndex<T> {
+
+    private static final int GRAM = 3;
+
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String> nameOf;
+    private final IntObjectMap<Entry<T>> entries;
+    private final IntObjectMap<IntHashSet> postings;
+
+    public NameIndex(ToIntFunction<T> idOf, Function<T, String> nameOf) {
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.entries = new IntObjectMap<>();
+        this.postings = new IntObjectMap<>();
+    }
+
+    public void add(T item) {
+        int id = idOf.applyAsInt(item);
+        Entry<T> previous = entries.get(id);
+
+        String lowerName = nameOf.apply(item).toLowerCase();
+        entries.put(id, new Entry<>(item, lowerName));
+
+        if (previous != null) {
+            // A replacement under the same name keeps its postings, which is the usual case for an edit
+            if (previous.lowerName.equals(lowerName)) {
+                return;
+            }
+            removePostings(id, previous.lowerName);
+        }
+
+        for (int i = 0; i + GRAM <= lowerName.length(); i++) {
+            int gram = gramAt(lowerName, i);
+            IntHashSet ids = postings.get(gram);
+            if (ids == null) {
+                ids = new IntHashSet();
+                postings.put(gram, ids);
+            }
+            ids.add(id);
+        }
+    }
+
+    public void remove(T item) {
+        int id = idOf.applyAsInt(item);
+        Entry<T> entry = entries.get(id);
+
+        // Only drop the entry if it still belongs to this item and not to a replacement with the same id
+        if (entry != null && entry.item == item) {
+            entries.remove(id);
+            removePostings(id, entry.lowerName);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        postings.clear();
+    }
+
+    public List<T> search(String query) {
+        String lowerQuery = query.toLowerCase();
+        List<T> found = new ArrayList<>();
+
+        if (lowerQuery.length() < GRAM) {
+            // Too short to produce a trigram, so check every cached lowercased name
+            entries.forEachValue(entry -> {
+                if (entry.lowerName.contains(lowerQuery)) {
+                    found.add(entry.item);
+                }
+            });
+        } else {
+            // Every match must contain each query trigram, so the smallest posting set bounds the candidates
+            IntHashSet candidates = null;
+            for (int i = 0; i + GRAM <= lowerQuery.length(); i++) {
+                IntHashSet ids = postings.get(gramAt(lowerQuery, i));
+                if (ids == null) {
+                    return found;
+                }
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+            }
+
+            candidates.forEach(id -> {
+                Entry<T> entry = entries.get(id);
+                if (entry.lowerName.contains(lowerQuery)) {
+                    found.add(entry.item);
+                }
+            });
+        }
+
+        // Posting sets are unordered, so return matches in id order for a stable table
+        found.sort(Comparator.comparingInt(idOf));
+        return found;
+    }
+
+    private void removePostings(int id, String lowerName) {
+        for (int i = 0; i + GRAM <= lowerName.length(); i++) {
+            int gram = gramAt(lowerName, i);
+            IntHashSet ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static int gramAt(String s, int i) {
+        // Exact for characters below U+0400; anything wider may collide, which verification filters out
+        return ((s.charAt(i) & 0x3FF) << 20) | ((s.charAt(i + 1) & 0x3FF) << 10) | (s.charAt(i + 2) & 0x3FF);
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final String lowerName;
+
+        private Entry(T item, String lowerName) {
+            this.item = item;
+            this.lowerName = lowerName;
+        }
+    }
+}
@@ -5,22 +5,26 @@ package info.ryandorman.inventorysystem.model;
  *   ID: 001002824
  */
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class Part {
 
-    private static int count = 0;
+    // Constructors may run on importer and sync threads as well as the FX thread
+    private static final AtomicInteger count = new AtomicInteger();
 
     private int id;
     private String name;
-    private double price;
-    private int stock;
+    private long priceCents;
+    // Set in place by the StockLedger on the FX thread while snapshot readers on other threads look on
+    private volatile int stock;
     private int min;
     private int max;
 
     public Part(int id, String name, double price, int stock, int min, int max) {
-        this.count++;
+        count.incrementAndGet();
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = Money.toCents(price);
         this.stock = stock;
         this.min = min;
         this.max = max;
@@ -43,11 +47,19 @@ public abstract class Part {
     }
 
     public double getPrice() {
-        return price;
+        return Money.toDouble(priceCents);
     }
 
     public void setPrice(double price) {
-        this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 
     public int getStock() {
@@ -75,6 +87,6 @@ public abstract class Part {
     }
 
     public static int getCount() {
-        return count;
+        return count.get();
     }
 }
@@ -8,24 +8,27 @@ package info.ryandorman.inventorysystem.model;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Product {
 
-    private static int count = 0;
+    // Constructors may run on importer and sync threads as well as the FX thread
+    private static final AtomicInteger count = new AtomicInteger();
 
     private ObservableList<Part> associatedParts;
     private int id;
     private String name;
-    private double price;
+    private long priceCents;
     private int stock;
     private int min;
     private int max;
 
     public Product(int id, String name, double price, int stock, int min, int max) {
-        this.count++;
+        count.incrementAndGet();
         this.associatedParts = FXCollections.observableArrayList();
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = Money.toCents(price);
         this.stock = stock;
         this.min = min;
         this.max = max;
@@ -48,11 +51,19 @@ public class Product {
     }
 
     public double getPrice() {
-        return price;
+        return Money.toDouble(priceCents);
     }
 
     public void setPrice(double price) {
-        this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 
     public int getStock() {
@@ -92,6 +103,6 @@ public class Product {
     }
 
     public static int getCount() {
-        return count;
+        return count.get();
     }
 }
@@ -0,0 +1,107 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.collections.ObservableList;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Price or stock range typed into a search field, such as "price:10..20", "price:>=5",
+ * "stock:..3", "stock:<10" or "price:15". Both ends of a ".." range are inclusive and either may be
+ * left out. Runs against the sorted indexes of the Inventory instead of scanning every row.
+ */
+public class RangeQuery {
+
+    private static final Pattern QUERY = Pattern.compile("(price|stock)\\s*:\\s*(.+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARE = Pattern.compile("(<=|>=|<|>)\\s*(.+)");
+
+    private final boolean byPrice;
+    private final double min;
+    private final double max;
+
+    private RangeQuery(boolean byPrice, double min, double max) {
+        this.byPrice = byPrice;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static RangeQuery parse(String searchValue) {
+        // Returns null if the text is not a range query, so it can be searched as an id or name instead
+        Matcher query = QUERY.matcher(searchValue.trim());
+        if (!query.matches()) {
+            return null;
+        }
+
+        boolean byPrice = query.group(1).toLowerCase(Locale.ROOT).equals("price");
+        String bounds = query.group(2).trim();
+
+        try {
+            int dots = bounds.indexOf("..");
+            if (dots >= 0) {
+                String from = bounds.substring(0, dots).trim();
+                String to = bounds.substring(dots + 2).trim();
+                if (from.isEmpty() && to.isEmpty()) {
+                    return null;
+                }
+                return new RangeQuery(byPrice,
+                        from.isEmpty() ? Double.NEGATIVE_INFINITY : parseBound(from),
+                        to.isEmpty() ? Double.POSITIVE_INFINITY : parseBound(to));
+            }
+
+            Matcher compare = COMPARE.matcher(bounds);
+            if (compare.matches()) {
+                double value = parseBound(compare.group(2).trim());
+                switch (compare.group(1)) {
+                    case "<":
+                        return new RangeQuery(byPrice, Double.NEGATIVE_INFINITY, Math.nextDown(value));
+                    case "<=":
+                        return new RangeQuery(byPrice, Double.NEGATIVE_INFINITY, value);
+                    case ">":
+                        return new RangeQuery(byPrice, Math.nextUp(value), Double.POSITIVE_INFINITY);
+                    default:
+                        return new RangeQuery(byPrice, value, Double.POSITIVE_INFINITY);
+                }
+            }
+
+            double value = parseBound(bounds);
+            return new RangeQuery(byPrice, value, value);
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private static double parseBound(String text) {
+        double value = Double.parseDouble(text);
+        if (Double.isNaN(value)) {
+            throw new NumberFormatException("Not a number: " + text);
+        }
+        return value;
+    }
+
+    public ObservableList<Part> lookupParts(Inventory inventory) {
+        return byPrice
+                ? inventory.lookupPartsByPrice(min, max)
+                : inventory.lookupPartsByStock(minStock(), maxStock());
+    }
+
+    public ObservableList<Product> lookupProducts(Inventory inventory) {
+        return byPrice
+                ? inventory.lookupProductsByPrice(min, max)
+                : inventory.lookupProductsByStock(minStock(), maxStock());
+    }
+
+    private int minStock() {
+        // Stock is whole, so "stock:>2.5" starts at 3; the cast clamps to the int range
+        return (int) Math.ceil(min);
+    }
+
+    private int maxStock() {
+        return (int) Math.floor(max);
+    }
+}
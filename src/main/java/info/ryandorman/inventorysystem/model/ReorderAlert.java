@@ -0,0 +1,70 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.Objects;
+
+/**
+ * One row of the "needs reorder" list: a Part or Product whose stock is at or near its minimum.
+ */
+public class ReorderAlert {
+
+    private final String type;
+    private final int id;
+    private final String name;
+    private final int stock;
+    private final int min;
+
+    public ReorderAlert(String type, int id, String name, int stock, int min) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.stock = stock;
+        this.min = min;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getHeadroom() {
+        return stock - min;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReorderAlert)) {
+            return false;
+        }
+        ReorderAlert other = (ReorderAlert) o;
+        return id == other.id && stock == other.stock && min == other.min
+                && type.equals(other.type) && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id, name, stock, min);
+    }
+}
@@ -0,0 +1,110 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.utilities.WatchList;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Live list of the Parts and Products closest to running out, ordered by headroom (stock minus
+ * min). Every Part and Product sits in a min-heap keyed by headroom that is updated as each one is
+ * added, replaced, adjusted or deleted, so refreshing the list only reads the top of the heaps and
+ * never rescans the Inventory. Runs on the FX thread alongside the Inventory.
+ */
+public class ReorderWatch {
+
+    private static final Comparator<ReorderAlert> BY_HEADROOM =
+            Comparator.comparingInt(ReorderAlert::getHeadroom).thenComparing(ReorderAlert::getType)
+                    .thenComparingInt(ReorderAlert::getId);
+
+    private final int maxHeadroom;
+    private final int limit;
+    private final WatchList<Part> partWatch = new WatchList<>(Part::getId, part -> part.getStock() - part.getMin());
+    private final WatchList<Product> productWatch =
+            new WatchList<>(Product::getId, product -> product.getStock() - product.getMin());
+    private final ObservableList<ReorderAlert> alerts = FXCollections.observableArrayList();
+
+    // Held here because the Inventory only keeps weak references to them
+    private final ListChangeListener<Part> partsListener = this::onPartsChanged;
+    private final ListChangeListener<Product> productsListener = this::onProductsChanged;
+
+    public ReorderWatch(Inventory inventory, int maxHeadroom, int limit) {
+        this.maxHeadroom = maxHeadroom;
+        this.limit = limit;
+
+        inventory.getAllParts().forEach(partWatch::update);
+        inventory.getAllProducts().forEach(productWatch::update);
+
+        // Weak so a Main View that is replaced does not keep its watch alive through the Inventory
+        inventory.getAllParts().addListener(new WeakListChangeListener<>(partsListener));
+        inventory.getAllProducts().addListener(new WeakListChangeListener<>(productsListener));
+
+        refresh();
+    }
+
+    public ObservableList<ReorderAlert> getAlerts() {
+        return alerts;
+    }
+
+    private void onPartsChanged(ListChangeListener.Change<? extends Part> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    partWatch.update(change.getList().get(i));
+                }
+                continue;
+            }
+            change.getRemoved().forEach(partWatch::remove);
+            change.getAddedSubList().forEach(partWatch::update);
+        }
+        refresh();
+    }
+
+    private void onProductsChanged(ListChangeListener.Change<? extends Product> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    productWatch.update(change.getList().get(i));
+                }
+                continue;
+            }
+            change.getRemoved().forEach(productWatch::remove);
+            change.getAddedSubList().forEach(productWatch::update);
+        }
+        refresh();
+    }
+
+    private void refresh() {
+        List<ReorderAlert> found = new ArrayList<>();
+        for (Part part : partWatch.smallest(limit, maxHeadroom)) {
+            found.add(new ReorderAlert("Part", part.getId(), part.getName(), part.getStock(), part.getMin()));
+        }
+        for (Product product : productWatch.smallest(limit, maxHeadroom)) {
+            found.add(new ReorderAlert("Product", product.getId(), product.getName(), product.getStock(), product.getMin()));
+        }
+
+        found.sort(BY_HEADROOM);
+        List<ReorderAlert> top = found.size() > limit ? found.subList(0, limit) : found;
+
+        // Most edits leave the closest few untouched, and replacing the rows would still redraw the table
+        if (!alerts.equals(top)) {
+            alerts.setAll(top);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.collections.ListChangeListener;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stock adjustments for Parts that can be made from any thread at a high rate. Each Part gets a
+ * counter holding its stock and reserved quantity in one atomic long, so an adjustment is a single
+ * compare-and-set that either keeps the Part within its min and max or is refused. Adjusted Parts
+ * have their stock set in place on the FX thread and are redrawn in one batch per publish; the
+ * Parts stay the same instances, so Products, snapshots and the undo history keep pointing at them.
+ * Stock is the one field of a Part that can change under an {@link InventorySnapshot}.
+ * <p>
+ * Reserved units are still in stock but promised elsewhere: they can only be reserved while stock
+ * stays at or above the minimum once they are consumed. Saving a Part from the Part view replaces
+ * it, and adjustments not yet published carry over onto the saved stock when the saved min and
+ * max allow them. Those that would leave it outside are dropped, and reservations beyond what the
+ * saved stock can cover are cut back, with a warning logged for each.
+ */
+public class StockLedger implements Closeable {
+
+    // State of a counter whose Part was replaced or deleted; adjusters move on to its successor
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private static final Logger LOGGER = Logger.getLogger(StockLedger.class.getName());
+
+    private final Inventory inventory;
+    private final Executor fxExecutor;
+    private final ConcurrentHashMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Set<Integer> dirtyPartIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+    private final ListChangeListener<Part> partsListener;
+
+    public StockLedger(Inventory inventory, Executor fxExecutor) {
+        this.inventory = inventory;
+        this.fxExecutor = fxExecutor;
+
+        // Move the counter of a Part that was replaced onto the new Part, and drop it once deleted
+        this.partsListener = change -> {
+            while (change.next()) {
+                for (Part removedPart : change.getRemoved()) {
+                    Counter counter = counters.get(removedPart.getId());
+                    if (counter != null && counter.part == removedPart) {
+                        rebase(counter, inventory.lookupPart(removedPart.getId()));
+                    }
+                }
+            }
+        };
+        inventory.getAllParts().addListener(partsListener);
+    }
+
+    public Adjustment receive(int partId, int quantity) {
+        return adjust(partId, quantity, quantity, 0);
+    }
+
+    public Adjustment reserve(int partId, int quantity) {
+        return adjust(partId, quantity, 0, quantity);
+    }
+
+    public Adjustment release(int partId, int quantity) {
+        return adjust(partId, quantity, 0, -quantity);
+    }
+
+    public Adjustment consume(int partId, int quantity) {
+        // Takes previously reserved units out of stock
+        return adjust(partId, quantity, -quantity, -quantity);
+    }
+
+    public int getStock(int partId) {
+        return stockOf(state(partId));
+    }
+
+    public int getReserved(int partId) {
+        return reservedOf(state(partId));
+    }
+
+    public int getAvailable(int partId) {
+        long state = state(partId);
+        return stockOf(state) - reservedOf(state);
+    }
+
+    @Override
+    public void close() {
+        inventory.getAllParts().removeListener(partsListener);
+    }
+
+    private Adjustment adjust(int partId, int quantity, int stockDelta, int reservedDelta) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        Counter counter = counter(partId);
+        while (true) {
+            long state = counter.state.get();
+            if (state == RETIRED) {
+                // Replaced on the FX thread; its successor takes over once it is in the map
+                Thread.onSpinWait();
+                counter = counter(partId);
+                continue;
+            }
+
+            long stock = (long) stockOf(state) + stockDelta;
+            long reserved = (long) reservedOf(state) + reservedDelta;
+
+            if (stock < counter.min || stock > counter.max || reserved < 0 || reserved > stock - counter.min) {
+                return new Adjustment(false, stockOf(state), reservedOf(state));
+            }
+            if (counter.state.compareAndSet(state, pack((int) stock, (int) reserved))) {
+                markDirty(partId);
+                return new Adjustment(true, (int) stock, (int) reserved);
+            }
+        }
+    }
+
+    private void markDirty(int partId) {
+        dirtyPartIds.add(partId);
+        if (publishScheduled.compareAndSet(false, true)) {
+            fxExecutor.execute(this::publish);
+        }
+    }
+
+    private long state(int partId) {
+        Counter counter = counter(partId);
+        long state = counter.state.get();
+        while (state == RETIRED) {
+            Thread.onSpinWait();
+            counter = counter(partId);
+            state = counter.state.get();
+        }
+        return state;
+    }
+
+    private Counter counter(int partId) {
+        Counter counter = counters.get(partId);
+        if (counter != null) {
+            return counter;
+        }
+
+        Part part = inventory.lookupPart(partId);
+        if (part == null) {
+            throw new IllegalArgumentException("No Part with id " + partId);
+        }
+        return counters.computeIfAbsent(partId, id -> new Counter(part));
+    }
+
+    private void publish() {
+        // Clear the flag first so an adjustment landing during the publish schedules another one
+        publishScheduled.set(false);
+
+        List<Part> adjustedParts = new ArrayList<>();
+        for (Iterator<Integer> it = dirtyPartIds.iterator(); it.hasNext(); ) {
+            int partId = it.next();
+            it.remove();
+
+            Counter counter = counters.get(partId);
+            if (counter == null) {
+                continue;
+            }
+            Part current = inventory.lookupPart(partId);
+            if (current != counter.part) {
+                // Built from a Part that was replaced meanwhile, so carry its adjustments onto the new one
+                counter = rebase(counter, current);
+                if (counter == null) {
+                    continue;
+                }
+            }
+
+            int stock = stockOf(counter.state.get());
+            if (stock != counter.publishedStock) {
+                counter.part.setStock(stock);
+                counter.publishedStock = stock;
+                adjustedParts.add(counter.part);
+            }
+        }
+
+        inventory.refreshParts(adjustedParts);
+    }
+
+    private Counter rebase(Counter counter, Part current) {
+        // Runs on the FX thread; adjustments made after the counter is retired go to its successor
+        long last = counter.state.getAndSet(RETIRED);
+        if (current == null) {
+            counters.remove(counter.part.getId(), counter);
+            return null;
+        }
+
+        // The saved Part may have a new min and max the carried adjustments no longer fit within
+        int unpublishedStock = stockOf(last) - counter.publishedStock;
+        long stock = (long) current.getStock() + unpublishedStock;
+        if (unpublishedStock != 0 && (stock < current.getMin() || stock > current.getMax())) {
+            LOGGER.log(Level.WARNING, "Dropped a stock adjustment of {0} to Part {1}: {2} is outside {3}..{4}",
+                    new Object[]{unpublishedStock, current.getId(), stock, current.getMin(), current.getMax()});
+            unpublishedStock = 0;
+            stock = current.getStock();
+        }
+        int reserved = reservedOf(last);
+        int reservable = (int) Math.max(0, Math.min(Integer.MAX_VALUE, stock - current.getMin()));
+        if (reserved > reservable) {
+            LOGGER.log(Level.WARNING, "Cut the {0} units reserved of Part {1} to the {2} its stock allows",
+                    new Object[]{reserved, current.getId(), reservable});
+            reserved = reservable;
+        }
+
+        Counter successor = new Counter(current, unpublishedStock, reserved);
+        counters.put(current.getId(), successor);
+        if (unpublishedStock != 0) {
+            markDirty(current.getId());
+        }
+        return successor;
+    }
+
+    private static long pack(int stock, int reserved) {
+        return ((long) stock << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int stockOf(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reservedOf(long state) {
+        return (int) state;
+    }
+
+    /**
+     * The outcome of one adjustment, with the counts it left behind, or the counts that made it be
+     * refused. They are read from the same compare-and-set, so they hold even if the Part is deleted
+     * straight after.
+     */
+    public static final class Adjustment {
+        private final boolean adjusted;
+        private final int stock;
+        private final int reserved;
+
+        private Adjustment(boolean adjusted, int stock, int reserved) {
+            this.adjusted = adjusted;
+            this.stock = stock;
+            this.reserved = reserved;
+        }
+
+        public boolean isAdjusted() {
+            return adjusted;
+        }
+
+        public int getStock() {
+            return stock;
+        }
+
+        public int getReserved() {
+            return reserved;
+        }
+
+        public int getAvailable() {
+            return stock - reserved;
+        }
+    }
+
+    private static class Counter {
+        private final Part part;
+        private final int min;
+        private final int max;
+        private final AtomicLong state;
+
+        // Stock last set on the Part, read and written on the FX thread only
+        private int publishedStock;
+
+        private Counter(Part part) {
+            this(part, 0, 0);
+        }
+
+        private Counter(Part part, int unpublishedStock, int reserved) {
+            this.part = part;
+            this.min = part.getMin();
+            this.max = part.getMax();
+            this.state = new AtomicLong(pack(part.getStock() + unpublishedStock, reserved));
+            this.publishedStock = part.getStock();
+        }
+    }
+}
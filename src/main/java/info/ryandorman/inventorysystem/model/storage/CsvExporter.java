@@ -0,0 +1,97 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Money;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams Parts and Products to CSV in the layout {@link CsvImporter} reads back.
+ */
+public class CsvExporter {
+
+    public void exportParts(Writer writer, Iterable<? extends Part> parts) throws IOException {
+        BufferedWriter out = new BufferedWriter(writer, 1 << 16);
+        out.write(CsvImporter.PART_HEADER);
+        out.newLine();
+
+        for (Part part : parts) {
+            if (part instanceof InHouse) {
+                out.write("InHouse,");
+            } else if (part instanceof Outsourced) {
+                out.write("Outsourced,");
+            } else {
+                throw new IOException("Unknown Part type " + part.getClass().getName());
+            }
+
+            writeCommon(out, part.getId(), part.getName(), part.getPriceCents(), part.getStock(), part.getMin(), part.getMax());
+
+            if (part instanceof InHouse) {
+                out.write(Integer.toString(((InHouse) part).getMachineId()));
+            } else {
+                writeText(out, ((Outsourced) part).getCompanyName());
+            }
+            out.newLine();
+        }
+
+        out.flush();
+    }
+
+    public void exportProducts(Writer writer, Iterable<? extends Product> products) throws IOException {
+        BufferedWriter out = new BufferedWriter(writer, 1 << 16);
+        out.write(CsvImporter.PRODUCT_HEADER);
+        out.newLine();
+
+        for (Product product : products) {
+            writeCommon(out, product.getId(), product.getName(), product.getPriceCents(), product.getStock(),
+                    product.getMin(), product.getMax());
+
+            for (int i = 0; i < product.getAllAssociatedParts().size(); i++) {
+                if (i > 0) {
+                    out.write(';');
+                }
+                out.write(Integer.toString(product.getAllAssociatedParts().get(i).getId()));
+            }
+            out.newLine();
+        }
+
+        out.flush();
+    }
+
+    private static void writeCommon(Writer out, int id, String name, long priceCents, int stock, int min, int max) throws IOException {
+        out.write(Integer.toString(id));
+        out.write(',');
+        writeText(out, name);
+        out.write(',');
+        out.write(Money.format(priceCents));
+        out.write(',');
+        out.write(Integer.toString(stock));
+        out.write(',');
+        out.write(Integer.toString(min));
+        out.write(',');
+        out.write(Integer.toString(max));
+        out.write(',');
+    }
+
+    private static void writeText(Writer out, String text) throws IOException {
+        // Quote only when the value would otherwise break the row apart
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.write(text);
+            return;
+        }
+
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,400 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.EditJournal;
+import info.ryandorman.inventorysystem.model.IdAllocator;
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.InventoryValuation;
+import info.ryandorman.inventorysystem.model.Money;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Streams Parts and Products out of CSV files in fixed-size batches. Rows are validated the same
+ * way the Part and Product views validate a save; invalid rows are skipped and reported in the
+ * {@link ImportResult} instead of aborting the import.
+ * <p>
+ * Parts: {@code type,id,name,price,stock,min,max,source} where type is InHouse or Outsourced and
+ * source is the machine id or company name. Products: {@code id,name,price,stock,min,max,partIds}
+ * where partIds is a {@code ;}-separated list. A blank id is taken from the given
+ * {@link IdAllocator}, a blank stock defaults to 0, and the first line is a header. A given id is
+ * only kept if nothing else can have it, through {@link IdAllocator#claim(int)}; a row whose id is
+ * already in use, in the Inventory, earlier in the file or in a block of ids handed out, is rejected.
+ * <p>
+ * Batches bound for an {@link Inventory} are added on the executor given for its thread, one batch
+ * at a time while the next is parsed, and the import returns once the last one is in.
+ */
+public class CsvImporter {
+
+    public static final String PART_HEADER = "type,id,name,price,stock,min,max,source";
+    public static final String PRODUCT_HEADER = "id,name,price,stock,min,max,partIds";
+
+    private static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private final int batchSize;
+
+    public CsvImporter() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public CsvImporter(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importParts(Reader reader, Inventory inventory, Executor fxExecutor) throws IOException {
+        // Pass Runnable::run when already on the Inventory's thread
+        InventorySink<Part> sink = new InventorySink<>(inventory::addParts, fxExecutor);
+        try {
+            return importParts(reader, inventory.getPartIds(), sink);
+        } finally {
+            sink.finish();
+        }
+    }
+
+    public ImportResult importParts(Reader reader, Inventory inventory, EditJournal journal,
+                                    Executor fxExecutor) throws IOException {
+        // Undone as one edit, however many batches the file arrives in
+        fxExecutor.execute(journal::beginGroup);
+        try {
+            return importParts(reader, inventory, fxExecutor);
+        } finally {
+            CompletableFuture.runAsync(journal::endGroup, fxExecutor).join();
+        }
+    }
+
+    public ImportResult importParts(Reader reader, IdAllocator ids, Consumer<List<Part>> sink) throws IOException {
+        ImportResult result = new ImportResult();
+        IdSource idSource = new IdSource(ids, batchSize);
+        BufferedReader in = new BufferedReader(reader, 1 << 16);
+        List<Part> batch = new ArrayList<>(batchSize);
+        List<String> fields = new ArrayList<>(8);
+        long lineNumber = 1;
+
+        in.readLine();
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            // A quoted field may span lines, so keep reading until the quotes balance
+            long firstLine = lineNumber;
+            while (!balanced(line)) {
+                String next = in.readLine();
+                if (next == null) {
+                    break;
+                }
+                line = line + "\n" + next;
+                lineNumber++;
+            }
+
+            try {
+                split(line, fields);
+                if (fields.size() != 8) {
+                    throw new IllegalArgumentException("Expected 8 fields but found " + fields.size());
+                }
+
+                String type = fields.get(0).trim();
+                String name = fields.get(2).trim();
+                double price = parsePrice(fields.get(3));
+                int stock = fields.get(4).trim().isEmpty() ? 0 : Integer.parseInt(fields.get(4).trim());
+                int min = Integer.parseInt(fields.get(5).trim());
+                int max = Integer.parseInt(fields.get(6).trim());
+                validate(name, stock, min, max);
+
+                boolean inHouse = type.equalsIgnoreCase("InHouse");
+                if (!inHouse && !type.equalsIgnoreCase("Outsourced")) {
+                    throw new IllegalArgumentException("Unknown Part type " + type);
+                }
+                int machineId = inHouse ? Integer.parseInt(fields.get(7).trim()) : 0;
+
+                // The id is taken last, once nothing else can reject the row
+                int id = idSource.idFor(fields.get(1));
+                batch.add(inHouse
+                        ? new InHouse(id, name, price, stock, min, max, machineId)
+                        : new Outsourced(id, name, price, stock, min, max, fields.get(7)));
+            } catch (IllegalArgumentException e) {
+                result.reject(firstLine, describe(e));
+                continue;
+            }
+
+            if (batch.size() == batchSize) {
+                flush(batch, sink, result);
+            }
+        }
+
+        flush(batch, sink, result);
+        return result;
+    }
+
+    public ImportResult importProducts(Reader reader, Inventory inventory, Executor fxExecutor) throws IOException {
+        // Part lookups go through the Inventory's locked indexes, so they are safe from this thread
+        InventorySink<Product> sink = new InventorySink<>(inventory::addProducts, fxExecutor);
+        try {
+            return importProducts(reader, inventory.getProductIds(), inventory::lookupPart, sink);
+        } finally {
+            sink.finish();
+        }
+    }
+
+    public ImportResult importProducts(Reader reader, Inventory inventory, EditJournal journal,
+                                       Executor fxExecutor) throws IOException {
+        fxExecutor.execute(journal::beginGroup);
+        try {
+            return importProducts(reader, inventory, fxExecutor);
+        } finally {
+            CompletableFuture.runAsync(journal::endGroup, fxExecutor).join();
+        }
+    }
+
+    public ImportResult importProducts(Reader reader, IdAllocator ids, IntFunction<Part> partLookup,
+                                       Consumer<List<Product>> sink) throws IOException {
+        ImportResult result = new ImportResult();
+        IdSource idSource = new IdSource(ids, batchSize);
+        BufferedReader in = new BufferedReader(reader, 1 << 16);
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<String> fields = new ArrayList<>(8);
+        List<Part> associatedParts = new ArrayList<>();
+        long lineNumber = 1;
+
+        in.readLine();
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            // A quoted field may span lines, so keep reading until the quotes balance
+            long firstLine = lineNumber;
+            while (!balanced(line)) {
+                String next = in.readLine();
+                if (next == null) {
+                    break;
+                }
+                line = line + "\n" + next;
+                lineNumber++;
+            }
+
+            try {
+                split(line, fields);
+                if (fields.size() != 7) {
+                    throw new IllegalArgumentException("Expected 7 fields but found " + fields.size());
+                }
+
+                String name = fields.get(1).trim();
+                double price = parsePrice(fields.get(2));
+                int stock = fields.get(3).trim().isEmpty() ? 0 : Integer.parseInt(fields.get(3).trim());
+                int min = Integer.parseInt(fields.get(4).trim());
+                int max = Integer.parseInt(fields.get(5).trim());
+                validate(name, stock, min, max);
+
+                // Resolve the associated Parts and apply the same price check as the Product view
+                associatedParts.clear();
+                for (String partId : fields.get(6).split(";")) {
+                    if (partId.trim().isEmpty()) {
+                        continue;
+                    }
+                    Part part = partLookup.apply(Integer.parseInt(partId.trim()));
+                    if (part == null) {
+                        throw new IllegalArgumentException("Unknown Part id " + partId.trim());
+                    }
+                    associatedParts.add(part);
+                }
+
+                if (associatedParts.isEmpty()) {
+                    throw new IllegalArgumentException("Product must be associated with at least one Part");
+                } else if (Money.toCents(price) < InventoryValuation.costCents(associatedParts)) {
+                    throw new IllegalArgumentException("Price is lower than the cost of its Parts");
+                }
+
+                int id = idSource.idFor(fields.get(0));
+                Product product = new Product(id, name, price, stock, min, max);
+                for (Part part : associatedParts) {
+                    product.addAssociatedPart(part);
+                }
+
+                batch.add(product);
+            } catch (IllegalArgumentException e) {
+                result.reject(firstLine, describe(e));
+                continue;
+            }
+
+            if (batch.size() == batchSize) {
+                flush(batch, sink, result);
+            }
+        }
+
+        flush(batch, sink, result);
+        return result;
+    }
+
+    private static <T> void flush(List<T> batch, Consumer<List<T>> sink, ImportResult result) {
+        if (!batch.isEmpty()) {
+            // Hand over a copy so the sink may keep or queue it while the next batch is parsed
+            sink.accept(new ArrayList<>(batch));
+            result.addImported(batch.size());
+            batch.clear();
+        }
+    }
+
+    private static void validate(String name, int stock, int min, int max) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name is required");
+        } else if (max < min) {
+            throw new IllegalArgumentException("Maximum must be greater or equal to the minimum");
+        } else if (stock < min || stock > max) {
+            throw new IllegalArgumentException("Stock must be within the minimum and maximum");
+        }
+    }
+
+    private static double parsePrice(String field) {
+        // Prices are kept to the cent, like the price field in the views, rounded from the exact decimal
+        try {
+            return Money.toDouble(Money.parse(field));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price is too large");
+        }
+    }
+
+
+    private static String describe(IllegalArgumentException e) {
+        return e instanceof NumberFormatException ? "Invalid number (" + e.getMessage() + ")" : e.getMessage();
+    }
+
+    private static boolean balanced(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    private static void split(String line, List<String> fields) {
+        // RFC 4180 style: fields may be quoted, and a doubled quote inside quotes is a literal quote
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+    }
+
+    private static class IdSource {
+        private final IdAllocator ids;
+        private final int blockSize;
+        private IdAllocator.Block block;
+
+        // Ids this import's claims jumped the mark over, first to last; nothing else can be given them
+        private final TreeMap<Integer, Integer> skipped = new TreeMap<>();
+
+        private IdSource(IdAllocator ids, int blockSize) {
+            this.ids = ids;
+            this.blockSize = blockSize;
+        }
+
+        private int idFor(String field) {
+            if (!field.trim().isEmpty()) {
+                int id = Integer.parseInt(field.trim());
+                if (id < 1 || !take(id)) {
+                    throw new IllegalArgumentException("Id " + id + " is already in use");
+                }
+                return id;
+            }
+
+            // Blank ids come from a block reserved for this import, so the shared mark is rarely touched
+            if (block == null || !block.hasNext()) {
+                block = ids.reserve(blockSize);
+            }
+            return block.next();
+        }
+
+        private boolean take(int id) {
+            int previousMark = ids.claim(id);
+            if (previousMark >= 0) {
+                if (previousMark + 1 < id) {
+                    skipped.put(previousMark + 1, id - 1);
+                }
+                return true;
+            }
+
+            // At or below the mark, so only free if an earlier claim of this import skipped it
+            Map.Entry<Integer, Integer> range = skipped.floorEntry(id);
+            if (range == null || id > range.getValue()) {
+                return false;
+            }
+            skipped.remove(range.getKey());
+            if (range.getKey() < id) {
+                skipped.put(range.getKey(), id - 1);
+            }
+            if (id < range.getValue()) {
+                skipped.put(id + 1, range.getValue());
+            }
+            return true;
+        }
+    }
+
+    private static class InventorySink<T> implements Consumer<List<T>> {
+        private final Consumer<List<T>> target;
+        private final Executor executor;
+        private CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+        private InventorySink(Consumer<List<T>> target, Executor executor) {
+            this.target = target;
+            this.executor = executor;
+        }
+
+        @Override
+        public void accept(List<T> batch) {
+            // Wait for the previous batch, so at most one is queued while the next is parsed
+            inFlight.join();
+            inFlight = CompletableFuture.runAsync(() -> target.accept(batch), executor);
+        }
+
+        private void finish() {
+            inFlight.join();
+        }
+    }
+}
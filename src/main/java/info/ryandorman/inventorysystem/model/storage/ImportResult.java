@@ -0,0 +1,46 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: how many rows were inserted and why the others were rejected.
+ */
+public class ImportResult {
+
+    // Keep the report readable when a whole file is malformed
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int imported;
+    private int rejected;
+    private final List<String> errors = new ArrayList<>();
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void reject(long line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + line + ": " + reason);
+        }
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,112 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of Parts and Products shared by the log and snapshot files. Prices are written
+ * as whole cents; files from before {@link #CENTS_VERSION} hold them as doubles and are read with
+ * the version they were written in.
+ */
+public final class InventoryCodec {
+
+    public static final int CENTS_VERSION = 2;
+
+    private static final byte IN_HOUSE = 1;
+    private static final byte OUTSOURCED = 2;
+
+    private InventoryCodec() {
+    }
+
+    public static void writePart(DataOutput out, Part part) throws IOException {
+        if (part instanceof InHouse) {
+            out.writeByte(IN_HOUSE);
+        } else if (part instanceof Outsourced) {
+            out.writeByte(OUTSOURCED);
+        } else {
+            throw new IOException("Unknown Part type " + part.getClass().getName());
+        }
+
+        out.writeInt(part.getId());
+        out.writeUTF(part.getName());
+        out.writeLong(part.getPriceCents());
+        out.writeInt(part.getStock());
+        out.writeInt(part.getMin());
+        out.writeInt(part.getMax());
+
+        if (part instanceof InHouse) {
+            out.writeInt(((InHouse) part).getMachineId());
+        } else {
+            out.writeUTF(((Outsourced) part).getCompanyName());
+        }
+    }
+
+    public static Part readPart(DataInput in, int version) throws IOException {
+        byte type = in.readByte();
+        int id = in.readInt();
+        String name = in.readUTF();
+        double price = version < CENTS_VERSION ? in.readDouble() : 0;
+        long priceCents = version < CENTS_VERSION ? 0 : in.readLong();
+        int stock = in.readInt();
+        int min = in.readInt();
+        int max = in.readInt();
+
+        Part part;
+        if (type == IN_HOUSE) {
+            part = new InHouse(id, name, price, stock, min, max, in.readInt());
+        } else if (type == OUTSOURCED) {
+            part = new Outsourced(id, name, price, stock, min, max, in.readUTF());
+        } else {
+            throw new IOException("Unknown Part type " + type);
+        }
+
+        if (version >= CENTS_VERSION) {
+            part.setPriceCents(priceCents);
+        }
+        return part;
+    }
+
+    public static void writeProduct(DataOutput out, Product product) throws IOException {
+        out.writeInt(product.getId());
+        out.writeUTF(product.getName());
+        out.writeLong(product.getPriceCents());
+        out.writeInt(product.getStock());
+        out.writeInt(product.getMin());
+        out.writeInt(product.getMax());
+
+        // Associated Parts are written in full so a Product survives its Parts being deleted
+        out.writeInt(product.getAllAssociatedParts().size());
+        for (Part part : product.getAllAssociatedParts()) {
+            writePart(out, part);
+        }
+    }
+
+    public static Product readProduct(DataInput in, int version) throws IOException {
+        int id = in.readInt();
+        String name = in.readUTF();
+        double price = version < CENTS_VERSION ? in.readDouble() : 0;
+        long priceCents = version < CENTS_VERSION ? 0 : in.readLong();
+        Product product = new Product(id, name, price, in.readInt(), in.readInt(), in.readInt());
+        if (version >= CENTS_VERSION) {
+            product.setPriceCents(priceCents);
+        }
+
+        int partCount = in.readInt();
+        for (int i = 0; i < partCount; i++) {
+            product.addAssociatedPart(readPart(in, version));
+        }
+
+        return product;
+    }
+}
@@ -0,0 +1,25 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.Inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Durable backing for an {@link Inventory}. A store loads the saved state into a fresh
+ * Inventory and then records every change made to it until it is closed.
+ */
+public interface InventoryStore extends Closeable {
+
+    Inventory open() throws IOException;
+
+    void snapshot() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
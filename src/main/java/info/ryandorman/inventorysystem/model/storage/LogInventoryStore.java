@@ -0,0 +1,693 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.InventorySnapshot;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+import info.ryandorman.inventorysystem.utilities.IntObjectMap;
+import javafx.collections.ListChangeListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory store made of a compact binary snapshot plus an append-only log of list changes
+ * made since that snapshot. Log records are buffered and fsynced together on a short timer,
+ * and once enough records pile up a new snapshot is written and the log starts over.
+ * Both files carry a generation number so a log is only replayed on top of its own snapshot.
+ * A due snapshot waits until both lists have reported their changes, then the log is set aside
+ * and the snapshot written on the sync thread; until it lands, the set-aside log is replayed ahead
+ * of the new one.
+ * Each reservation of ids appends the allocators' new high-water marks to the log, ahead of any
+ * record that uses those ids, so the marks reach the disk with the next sync instead of being
+ * forced on the reserving thread. A third small file keeps the marks past the logs, rewritten when
+ * a snapshot lands and on close. While open, the store holds a lock on the directory's lock file, so a second process
+ * opening the same directory fails straight away instead of interleaving its writes.
+ */
+public class LogInventoryStore implements InventoryStore {
+
+    private static final int LOG_MAGIC = 0x44494C47;
+    private static final int SNAPSHOT_MAGIC = 0x44495350;
+    private static final int IDS_MAGIC = 0x44494944;
+    private static final int IDS_VERSION = 1;
+    // Version 2 stores prices in cents; version 1 files are still read and rewritten on open
+    private static final int VERSION = InventoryCodec.CENTS_VERSION;
+
+    private static final byte PART_REMOVE = 1;
+    private static final byte PART_ADD = 2;
+    private static final byte PART_PERMUTE = 3;
+    private static final byte PRODUCT_REMOVE = 4;
+    private static final byte PRODUCT_ADD = 5;
+    private static final byte PRODUCT_PERMUTE = 6;
+    private static final byte ID_MARKS = 7;
+
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 200;
+    private static final int DEFAULT_SNAPSHOT_EVERY = 100_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path logFile;
+    private final Path previousLogFile;
+    private final Path snapshotFile;
+    private final Path idsFile;
+    private final Path lockFile;
+    private final Object idsLock = new Object();
+    private final long syncIntervalMillis;
+    private final int snapshotEvery;
+    private final ListChangeListener<Part> partsListener = this::onPartsChanged;
+    private final ListChangeListener<Product> productsListener = this::onProductsChanged;
+
+    private Inventory inventory;
+    private FileChannel lockChannel;
+    private long generation;
+    private FileChannel logChannel;
+    private DataOutputStream log;
+    private boolean unsynced;
+    private int recordsSinceSnapshot;
+    private ScheduledExecutorService syncer;
+    private Future<?> pendingSnapshot;
+    private boolean snapshotFailed;
+    private boolean olderFormat;
+    private int replayedPartMark;
+    private int replayedProductMark;
+
+    public LogInventoryStore(Path directory) {
+        this(directory, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public LogInventoryStore(Path directory, long syncIntervalMillis, int snapshotEvery) {
+        this.logFile = directory.resolve("inventory.log");
+        this.previousLogFile = directory.resolve("inventory.log.prev");
+        this.snapshotFile = directory.resolve("inventory.snap");
+        this.idsFile = directory.resolve("inventory.ids");
+        this.lockFile = directory.resolve("inventory.lock");
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @Override
+    public Inventory open() throws IOException {
+        Files.createDirectories(logFile.getParent());
+        lock();
+        try {
+            return load();
+        } catch (IOException | RuntimeException e) {
+            unlock();
+            throw e;
+        }
+    }
+
+    private Inventory load() throws IOException {
+        List<Part> parts = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+
+        // Rebuild state into plain lists first so the Inventory only sees one change per list
+        if (Files.exists(snapshotFile)) {
+            readSnapshot(parts, products);
+        }
+
+        // A log set aside for a snapshot that never landed comes first, then the log that followed it
+        boolean previousReplayed = Files.exists(previousLogFile) && replayLog(previousLogFile, parts, products) >= 0;
+        if (previousReplayed) {
+            generation++;
+        }
+
+        long validLength = Files.exists(logFile) ? replayLog(logFile, parts, products) : -1;
+        relinkAssociatedParts(parts, products);
+
+        inventory = new Inventory();
+        inventory.addParts(parts);
+        inventory.addProducts(products);
+
+        // Indexing the loaded data moved the id allocators past every stored id; the saved marks
+        // also cover ids that were handed out before their Part or Product was deleted
+        if (Files.exists(idsFile)) {
+            readIds();
+        }
+        inventory.getPartIds().advancePast(replayedPartMark);
+        inventory.getProductIds().advancePast(replayedProductMark);
+
+        if (validLength < 0) {
+            startLog();
+        } else {
+            // Resume the existing log, dropping any half-written record left by a crash
+            logChannel = FileChannel.open(logFile, StandardOpenOption.WRITE);
+            logChannel.truncate(validLength);
+            logChannel.position(validLength);
+            log = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(logChannel), BUFFER_SIZE));
+        }
+
+        inventory.getPartIds().setReservationListener(mark -> logIdMarksQuietly());
+        inventory.getProductIds().setReservationListener(mark -> logIdMarksQuietly());
+        inventory.getAllParts().addListener(partsListener);
+        inventory.getAllProducts().addListener(productsListener);
+        inventory.setBatchListener(this::snapshotIfDueQuietly);
+
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-log-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+
+        if (previousReplayed || olderFormat) {
+            // Fold both logs into a snapshot now, before another one is set aside in place of the first,
+            // and so records in the current format are never appended to an older log
+            snapshot();
+        }
+
+        return inventory;
+    }
+
+    @Override
+    public void snapshot() throws IOException {
+        // Written on the calling thread, which must be the one editing the Inventory, between edits
+        awaitPendingSnapshot(false);
+
+        long nextGeneration = generation + 1;
+        writeSnapshot(inventory.snapshot(), nextGeneration);
+        // The log about to be started over holds the only record of ids reserved since the last snapshot
+        writeIds();
+
+        synchronized (this) {
+            generation = nextGeneration;
+            log.close();
+            startLog();
+            recordsSinceSnapshot = 0;
+            unsynced = false;
+        }
+        Files.deleteIfExists(previousLogFile);
+        snapshotFailed = false;
+    }
+
+    private void writeSnapshot(InventorySnapshot current, long snapshotGeneration) throws IOException {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshotGeneration);
+
+            out.writeInt(current.getParts().size());
+            for (Part part : current.getParts()) {
+                InventoryCodec.writePart(out, part);
+            }
+
+            out.writeInt(current.getProducts().size());
+            for (Product product : current.getProducts()) {
+                InventoryCodec.writeProduct(out, product);
+            }
+
+            out.flush();
+            channel.force(true);
+        }
+
+        // Publish the snapshot atomically; logs of earlier generations are ignored from here on
+        Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer == null) {
+            return;
+        }
+
+        inventory.getAllParts().removeListener(partsListener);
+        inventory.getAllProducts().removeListener(productsListener);
+        inventory.setBatchListener(null);
+
+        // A snapshot that failed is made up for on the next open, which replays the set-aside log
+        awaitPendingSnapshot(false);
+        syncer.shutdown();
+        inventory.getPartIds().setReservationListener(null);
+        inventory.getProductIds().setReservationListener(null);
+        writeIds();
+
+        synchronized (this) {
+            log.flush();
+            logChannel.force(false);
+            log.close();
+        }
+        syncer = null;
+        unlock();
+    }
+
+    private void lock() throws IOException {
+        // Held until close; the operating system drops it if the process dies
+        lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+
+        if (lock == null) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IOException("Inventory store " + lockFile.getParent() + " is already open elsewhere");
+        }
+    }
+
+    private void unlock() throws IOException {
+        if (lockChannel != null) {
+            // Closing the channel releases the lock
+            lockChannel.close();
+            lockChannel = null;
+        }
+    }
+
+    private void onPartsChanged(ListChangeListener.Change<? extends Part> change) {
+        try {
+            synchronized (this) {
+                while (change.next()) {
+                    if (change.wasPermutated()) {
+                        writePermutation(PART_PERMUTE, change);
+                        continue;
+                    }
+                    if (change.wasUpdated()) {
+                        // Changed in place, so log each row as replaced by its current state
+                        for (int i = change.getFrom(); i < change.getTo(); i++) {
+                            writeRemove(PART_REMOVE, i, 1);
+                            log.writeByte(PART_ADD);
+                            log.writeInt(i);
+                            log.writeInt(1);
+                            InventoryCodec.writePart(log, change.getList().get(i));
+                            recordsSinceSnapshot++;
+                        }
+                        continue;
+                    }
+                    if (change.wasRemoved()) {
+                        writeRemove(PART_REMOVE, change.getFrom(), change.getRemovedSize());
+                    }
+                    if (change.wasAdded()) {
+                        log.writeByte(PART_ADD);
+                        log.writeInt(change.getFrom());
+                        log.writeInt(change.getAddedSize());
+                        for (Part part : change.getAddedSubList()) {
+                            InventoryCodec.writePart(log, part);
+                        }
+                        recordsSinceSnapshot++;
+                    }
+                }
+                unsynced = true;
+            }
+            snapshotIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void onProductsChanged(ListChangeListener.Change<? extends Product> change) {
+        try {
+            synchronized (this) {
+                while (change.next()) {
+                    if (change.wasPermutated()) {
+                        writePermutation(PRODUCT_PERMUTE, change);
+                        continue;
+                    }
+                    if (change.wasUpdated()) {
+                        // Changed in place, so log each row as replaced by its current state
+                        for (int i = change.getFrom(); i < change.getTo(); i++) {
+                            writeRemove(PRODUCT_REMOVE, i, 1);
+                            log.writeByte(PRODUCT_ADD);
+                            log.writeInt(i);
+                            log.writeInt(1);
+                            InventoryCodec.writeProduct(log, change.getList().get(i));
+                            recordsSinceSnapshot++;
+                        }
+                        continue;
+                    }
+                    if (change.wasRemoved()) {
+                        writeRemove(PRODUCT_REMOVE, change.getFrom(), change.getRemovedSize());
+                    }
+                    if (change.wasAdded()) {
+                        log.writeByte(PRODUCT_ADD);
+                        log.writeInt(change.getFrom());
+                        log.writeInt(change.getAddedSize());
+                        for (Product product : change.getAddedSubList()) {
+                            InventoryCodec.writeProduct(log, product);
+                        }
+                        recordsSinceSnapshot++;
+                    }
+                }
+                unsynced = true;
+            }
+            snapshotIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRemove(byte op, int from, int count) throws IOException {
+        log.writeByte(op);
+        log.writeInt(from);
+        log.writeInt(count);
+        recordsSinceSnapshot++;
+    }
+
+    private void writePermutation(byte op, ListChangeListener.Change<?> change) throws IOException {
+        log.writeByte(op);
+        log.writeInt(change.getFrom());
+        log.writeInt(change.getTo());
+        for (int i = change.getFrom(); i < change.getTo(); i++) {
+            log.writeInt(change.getPermutation(i));
+        }
+        recordsSinceSnapshot++;
+    }
+
+    private void snapshotIfDue() throws IOException {
+        // Mid-batch the other list may hold changes not logged yet, so wait for the batch to end
+        if (recordsSinceSnapshot < snapshotEvery || snapshotFailed || inventory.isBatching()) {
+            return;
+        }
+        if (pendingSnapshot != null && !pendingSnapshot.isDone()) {
+            return;
+        }
+        awaitPendingSnapshot(true);
+
+        // Everything logged so far is in this snapshot; the next generation's log takes what follows
+        InventorySnapshot current = inventory.snapshot();
+        long nextGeneration;
+        synchronized (this) {
+            log.flush();
+            logChannel.force(false);
+            log.close();
+            Files.move(logFile, previousLogFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            nextGeneration = ++generation;
+            startLog();
+            recordsSinceSnapshot = 0;
+            unsynced = false;
+        }
+
+        pendingSnapshot = syncer.submit(() -> {
+            writeSnapshot(current, nextGeneration);
+            writeIds();
+            Files.deleteIfExists(previousLogFile);
+            return null;
+        });
+    }
+
+    private void snapshotIfDueQuietly() {
+        try {
+            snapshotIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void awaitPendingSnapshot(boolean report) throws IOException {
+        Future<?> pending = pendingSnapshot;
+        if (pending == null) {
+            return;
+        }
+        pendingSnapshot = null;
+
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a snapshot", e);
+        } catch (ExecutionException e) {
+            // The set-aside log still covers it, but setting aside another would lose that log
+            snapshotFailed = true;
+            if (report) {
+                throw new IOException("Unable to write snapshot " + snapshotFile, e.getCause());
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            FileChannel channel;
+            synchronized (this) {
+                if (!unsynced) {
+                    return;
+                }
+                log.flush();
+                unsynced = false;
+                channel = logChannel;
+            }
+
+            // Force outside the lock so the writer is never stalled behind the disk
+            channel.force(false);
+        } catch (IOException e) {
+            // The next write or close reports a broken log
+        }
+    }
+
+    private void logIdMarksQuietly() {
+        // Runs before any id of a new block is used, so a log holding a record with one of those ids
+        // also holds a mark past it, and a restart never hands the id out again
+        try {
+            synchronized (this) {
+                log.writeByte(ID_MARKS);
+                log.writeInt(inventory.getPartIds().getHighWaterMark());
+                log.writeInt(inventory.getProductIds().getHighWaterMark());
+                unsynced = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeIds() throws IOException {
+        // Called before the logs holding the marks are dropped, from the sync thread or while closing
+        synchronized (idsLock) {
+            Path tempFile = idsFile.resolveSibling(idsFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(16);
+                buffer.putInt(IDS_MAGIC);
+                buffer.putInt(IDS_VERSION);
+                buffer.putInt(inventory.getPartIds().getHighWaterMark());
+                buffer.putInt(inventory.getProductIds().getHighWaterMark());
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tempFile, idsFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void readIds() throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(idsFile))) {
+            if (in.readInt() != IDS_MAGIC || in.readInt() != IDS_VERSION) {
+                throw new IOException("Unrecognized id marks " + idsFile);
+            }
+            inventory.getPartIds().advancePast(in.readInt());
+            inventory.getProductIds().advancePast(in.readInt());
+        }
+    }
+
+    private void startLog() throws IOException {
+        logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        log = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(logChannel), BUFFER_SIZE));
+        log.writeInt(LOG_MAGIC);
+        log.writeInt(VERSION);
+        log.writeLong(generation);
+        log.flush();
+        logChannel.force(true);
+    }
+
+    private void readSnapshot(List<Part> parts, List<Product> products) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), BUFFER_SIZE))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? readVersion(in) : -1;
+            if (version < 0) {
+                throw new IOException("Unrecognized snapshot " + snapshotFile);
+            }
+            generation = in.readLong();
+
+            int partCount = in.readInt();
+            for (int i = 0; i < partCount; i++) {
+                parts.add(InventoryCodec.readPart(in, version));
+            }
+
+            int productCount = in.readInt();
+            for (int i = 0; i < productCount; i++) {
+                products.add(InventoryCodec.readProduct(in, version));
+            }
+        }
+    }
+
+    private long replayLog(Path file, List<Part> parts, List<Product> products) throws IOException {
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            DataInputStream in = new DataInputStream(counter);
+
+            // A log from another generation is already folded into (or superseded by) the snapshot
+            int version;
+            try {
+                version = in.readInt() == LOG_MAGIC ? readVersion(in) : -1;
+                if (version < 0 || in.readLong() != generation) {
+                    return -1;
+                }
+            } catch (EOFException e) {
+                return -1;
+            }
+
+            long validLength = counter.count;
+
+            try {
+                while (true) {
+                    int op = in.read();
+                    if (op < 0) {
+                        break;
+                    }
+
+                    switch (op) {
+                        case PART_REMOVE:
+                            removeRange(parts, in);
+                            break;
+                        case PART_ADD:
+                            int partIndex = in.readInt();
+                            int partCount = in.readInt();
+                            List<Part> addedParts = new ArrayList<>(partCount);
+                            for (int i = 0; i < partCount; i++) {
+                                addedParts.add(InventoryCodec.readPart(in, version));
+                            }
+                            parts.addAll(partIndex, addedParts);
+                            break;
+                        case PART_PERMUTE:
+                            permuteRange(parts, in);
+                            break;
+                        case PRODUCT_REMOVE:
+                            removeRange(products, in);
+                            break;
+                        case PRODUCT_ADD:
+                            int productIndex = in.readInt();
+                            int productCount = in.readInt();
+                            List<Product> addedProducts = new ArrayList<>(productCount);
+                            for (int i = 0; i < productCount; i++) {
+                                addedProducts.add(InventoryCodec.readProduct(in, version));
+                            }
+                            products.addAll(productIndex, addedProducts);
+                            break;
+                        case PRODUCT_PERMUTE:
+                            permuteRange(products, in);
+                            break;
+                        case ID_MARKS:
+                            replayedPartMark = Math.max(replayedPartMark, in.readInt());
+                            replayedProductMark = Math.max(replayedProductMark, in.readInt());
+                            break;
+                        default:
+                            throw new IOException("Corrupt log record " + op + " at " + validLength);
+                    }
+
+                    validLength = counter.count;
+                }
+            } catch (EOFException e) {
+                // A record cut short by a crash; everything before it is intact
+            }
+
+            return validLength;
+        }
+    }
+
+    private int readVersion(DataInputStream in) throws IOException {
+        // Older files are read as they are and noted, so open can rewrite them in the current format
+        int version = in.readInt();
+        if (version < 1 || version > VERSION) {
+            return -1;
+        }
+        olderFormat |= version < VERSION;
+        return version;
+    }
+
+    private static <T> void removeRange(List<T> list, DataInputStream in) throws IOException {
+        int from = in.readInt();
+        int count = in.readInt();
+        list.subList(from, from + count).clear();
+    }
+
+    private static <T> void permuteRange(List<T> list, DataInputStream in) throws IOException {
+        int from = in.readInt();
+        int to = in.readInt();
+        List<T> original = new ArrayList<>(list.subList(from, to));
+        for (int i = from; i < to; i++) {
+            list.set(in.readInt(), original.get(i - from));
+        }
+    }
+
+    private static void relinkAssociatedParts(List<Part> parts, List<Product> products) {
+        // Products were stored with copies of their Parts; swap in the live instances where they still exist
+        IntObjectMap<Part> partsById = new IntObjectMap<>(parts.size());
+        for (Part part : parts) {
+            partsById.put(part.getId(), part);
+        }
+
+        for (Product product : products) {
+            List<Part> associatedParts = product.getAllAssociatedParts();
+            for (int i = 0; i < associatedParts.size(); i++) {
+                Part live = partsById.get(associatedParts.get(i).getId());
+                if (live != null) {
+                    associatedParts.set(i, live);
+                }
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
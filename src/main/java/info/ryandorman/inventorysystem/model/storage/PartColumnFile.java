@@ -0,0 +1,271 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.utilities.PageSource;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only, memory-mapped columnar catalog of Parts. Each field is stored as its own primitive
+ * column, prices in cents, and names and company names share one string dictionary, so a catalog
+ * can be scanned through the column accessors, or browsed row by row through {@link #asList()} or
+ * a {@link info.ryandorman.inventorysystem.utilities.PagedObservableList}, without holding every
+ * Part on the heap. A single mapping limits a file to 2 GB (roughly 50M rows).
+ */
+public class PartColumnFile implements PageSource<Part> {
+
+    private static final int MAGIC = 0x44495043;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte IN_HOUSE = 1;
+    private static final byte OUTSOURCED = 2;
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final int idColumn;
+    private final int priceColumn;
+    private final int stockColumn;
+    private final int minColumn;
+    private final int maxColumn;
+    private final int typeColumn;
+    private final int sourceColumn;
+    private final int nameColumn;
+    private final int dictionaryOffsets;
+    private final int dictionaryBytes;
+
+    private PartColumnFile(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a Part column file");
+        }
+
+        this.buffer = buffer;
+        this.rowCount = buffer.getInt(8);
+        int dictionarySize = buffer.getInt(12);
+
+        // Columns are laid out back to back in a fixed order, so their offsets follow from the row count
+        this.idColumn = HEADER_SIZE;
+        this.priceColumn = idColumn + rowCount * Integer.BYTES;
+        this.stockColumn = priceColumn + rowCount * Long.BYTES;
+        this.minColumn = stockColumn + rowCount * Integer.BYTES;
+        this.maxColumn = minColumn + rowCount * Integer.BYTES;
+        this.typeColumn = maxColumn + rowCount * Integer.BYTES;
+        this.sourceColumn = typeColumn + rowCount;
+        this.nameColumn = sourceColumn + rowCount * Integer.BYTES;
+        this.dictionaryOffsets = nameColumn + rowCount * Integer.BYTES;
+        this.dictionaryBytes = dictionaryOffsets + (dictionarySize + 1) * Integer.BYTES;
+    }
+
+    public static PartColumnFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a Part column file");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PartColumnFile(mapped);
+        }
+    }
+
+    public static void write(Path file, List<? extends Part> parts) throws IOException {
+        // Intern every distinct name and company name into one dictionary
+        Map<String, Integer> dictionaryIndex = new HashMap<>();
+        List<byte[]> dictionary = new ArrayList<>();
+        int[] nameRefs = new int[parts.size()];
+        int[] sourceRefs = new int[parts.size()];
+
+        for (int row = 0; row < parts.size(); row++) {
+            Part part = parts.get(row);
+            nameRefs[row] = intern(part.getName(), dictionaryIndex, dictionary);
+
+            if (part instanceof InHouse) {
+                sourceRefs[row] = ((InHouse) part).getMachineId();
+            } else if (part instanceof Outsourced) {
+                sourceRefs[row] = intern(((Outsourced) part).getCompanyName(), dictionaryIndex, dictionary);
+            } else {
+                throw new IOException("Unknown Part type " + part.getClass().getName());
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(parts.size());
+            out.writeInt(dictionary.size());
+
+            for (Part part : parts) {
+                out.writeInt(part.getId());
+            }
+            for (Part part : parts) {
+                out.writeLong(part.getPriceCents());
+            }
+            for (Part part : parts) {
+                out.writeInt(part.getStock());
+            }
+            for (Part part : parts) {
+                out.writeInt(part.getMin());
+            }
+            for (Part part : parts) {
+                out.writeInt(part.getMax());
+            }
+            for (Part part : parts) {
+                out.writeByte(part instanceof InHouse ? IN_HOUSE : OUTSOURCED);
+            }
+            for (int sourceRef : sourceRefs) {
+                out.writeInt(sourceRef);
+            }
+            for (int nameRef : nameRefs) {
+                out.writeInt(nameRef);
+            }
+
+            // Dictionary entry i spans offsets[i] to offsets[i + 1] in the byte area
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] entry : dictionary) {
+                offset += entry.length;
+                out.writeInt(offset);
+            }
+            for (byte[] entry : dictionary) {
+                out.write(entry);
+            }
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> dictionaryIndex, List<byte[]> dictionary) {
+        Integer index = dictionaryIndex.get(value);
+        if (index == null) {
+            index = dictionary.size();
+            dictionaryIndex.put(value, index);
+            dictionary.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return index;
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    @Override
+    public List<Part> fetch(int from, int count) {
+        int to = Math.min(rowCount, from + count);
+        checkRow(from);
+        List<Part> rows = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) {
+            rows.add(get(row));
+        }
+        return rows;
+    }
+
+    public int getId(int row) {
+        return buffer.getInt(idColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    public long getPriceCents(int row) {
+        return buffer.getLong(priceColumn + checkRow(row) * Long.BYTES);
+    }
+
+    public int getStock(int row) {
+        return buffer.getInt(stockColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    public int getMin(int row) {
+        return buffer.getInt(minColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    public int getMax(int row) {
+        return buffer.getInt(maxColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    public boolean isInHouse(int row) {
+        return buffer.get(typeColumn + checkRow(row)) == IN_HOUSE;
+    }
+
+    public int getMachineId(int row) {
+        if (!isInHouse(row)) {
+            throw new IllegalStateException("Row " + row + " is not an In-House Part");
+        }
+        return buffer.getInt(sourceColumn + row * Integer.BYTES);
+    }
+
+    public String getCompanyName(int row) {
+        if (isInHouse(row)) {
+            throw new IllegalStateException("Row " + row + " is not an Outsourced Part");
+        }
+        return lookupString(buffer.getInt(sourceColumn + row * Integer.BYTES));
+    }
+
+    public String getName(int row) {
+        return lookupString(buffer.getInt(nameColumn + checkRow(row) * Integer.BYTES));
+    }
+
+    public Part get(int row) {
+        // Materialize just this row; the rest of the catalog stays in the mapping
+        Part part;
+        if (isInHouse(row)) {
+            part = new InHouse(getId(row), getName(row), 0, getStock(row), getMin(row), getMax(row),
+                    getMachineId(row));
+        } else {
+            part = new Outsourced(getId(row), getName(row), 0, getStock(row), getMin(row), getMax(row),
+                    getCompanyName(row));
+        }
+        part.setPriceCents(getPriceCents(row));
+        return part;
+    }
+
+    public List<Part> asList() {
+        return new RowList();
+    }
+
+    private String lookupString(int index) {
+        int start = buffer.getInt(dictionaryOffsets + index * Integer.BYTES);
+        int end = buffer.getInt(dictionaryOffsets + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+
+        ByteBuffer view = buffer.duplicate();
+        view.position(dictionaryBytes + start);
+        view.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return row;
+    }
+
+    private class RowList extends AbstractList<Part> implements RandomAccess {
+        @Override
+        public Part get(int index) {
+            return PartColumnFile.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package info.ryandorman.inventorysystem.server;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.InventorySnapshot;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+import info.ryandorman.inventorysystem.model.RangeQuery;
+import info.ryandorman.inventorysystem.model.StockLedger;
+import info.ryandorman.inventorysystem.model.storage.InventoryStore;
+import info.ryandorman.inventorysystem.model.storage.LogInventoryStore;
+import info.ryandorman.inventorysystem.utilities.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the Inventory over HTTP with JSON bodies, without the JavaFX stage, for scanners and
+ * integrations. A single writer thread stands in for the FX thread: it is the only thread that
+ * edits the Inventory, while requests read through its locked indexes or from an O(1) snapshot and
+ * adjust stock through a {@link StockLedger}. Requests run one per virtual thread on runtimes that
+ * have them and on a cached pool otherwise. Lists are streamed as they are serialised.
+ * <pre>
+ * GET  /parts, /products                     every row, optionally ?offset=&amp;limit=
+ * GET  /parts/{id}, /products/{id}
+ * GET  /parts/search?q=, /products/search?q= an id, a name or a range such as price:1..5
+ * POST /parts/{id}/stock?receive=n           or reserve, release or consume
+ * </pre>
+ * Stock adjustments reach the Part itself once the writer publishes them, usually within a
+ * millisecond; the response to the adjustment carries the current counts straight away.
+ */
+public class InventoryServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final Logger LOGGER = Logger.getLogger(InventoryServer.class.getName());
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    static {
+        // Headers and body go out as separate writes, so with Nagle's algorithm on each response
+        // waits for the client's delayed ACK, capping a connection at a few dozen requests a second
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Inventory inventory;
+    private final ExecutorService writer;
+    private final ExecutorService requests;
+    private final StockLedger stockLedger;
+    private final HttpServer server;
+
+    public InventoryServer(Inventory inventory, InetSocketAddress address) throws IOException {
+        this.inventory = inventory;
+        this.writer = Executors.newSingleThreadExecutor(threads("inventory-writer", false));
+        this.requests = newRequestExecutor();
+        this.stockLedger = new StockLedger(inventory, writer);
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(requests);
+        server.createContext("/parts", exchange -> handle(exchange, this::routeParts));
+        server.createContext("/products", exchange -> handle(exchange, this::routeProducts));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        requests.shutdown();
+        writer.execute(stockLedger::close);
+        writer.shutdown();
+        try {
+            // Let the last stock publish reach the Inventory before it is closed
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static ExecutorService newRequestExecutor() {
+        // Executors.newVirtualThreadPerTaskExecutor is looked up by name so this still runs on Java 17
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(threads("http", true));
+        }
+    }
+
+    private static ThreadFactory threads(String name, boolean daemon) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+
+    private void routeParts(HttpExchange exchange, String[] path, Map<String, String> query) throws IOException {
+        if (path.length == 0) {
+            requireMethod(exchange, "GET");
+            List<Part> parts = page(snapshot().getParts(), query);
+            sendJson(exchange, 200, true, json -> writeParts(json, parts));
+        } else if (path.length == 1 && path[0].equals("search")) {
+            requireMethod(exchange, "GET");
+            List<Part> parts = findParts(require(query, "q"));
+            sendJson(exchange, 200, true, json -> writeParts(json, parts));
+        } else if (path.length == 1) {
+            requireMethod(exchange, "GET");
+            Part part = inventory.lookupPart(parseInt(path[0]));
+            if (part == null) {
+                throw new HttpError(404, "No Part with id " + path[0]);
+            }
+            sendJson(exchange, 200, false, json -> writePart(json, part));
+        } else if (path.length == 2 && path[1].equals("stock")) {
+            requireMethod(exchange, "POST");
+            adjustStock(exchange, parseInt(path[0]), query);
+        } else {
+            throw new HttpError(404, "Not found");
+        }
+    }
+
+    private void routeProducts(HttpExchange exchange, String[] path, Map<String, String> query) throws IOException {
+        requireMethod(exchange, "GET");
+        if (path.length == 0) {
+            List<Product> products = page(snapshot().getProducts(), query);
+            sendJson(exchange, 200, true, json -> writeProducts(json, products));
+        } else if (path.length == 1 && path[0].equals("search")) {
+            List<Product> products = findProducts(require(query, "q"));
+            sendJson(exchange, 200, true, json -> writeProducts(json, products));
+        } else if (path.length == 1) {
+            Product product = inventory.lookupProduct(parseInt(path[0]));
+            if (product == null) {
+                throw new HttpError(404, "No Product with id " + path[0]);
+            }
+            sendJson(exchange, 200, false, json -> writeProduct(json, product));
+        } else {
+            throw new HttpError(404, "Not found");
+        }
+    }
+
+    private List<Part> findParts(String searchValue) {
+        // The same id, name and range searches as the Main View's search field
+        RangeQuery rangeQuery = RangeQuery.parse(searchValue);
+        if (rangeQuery != null) {
+            return rangeQuery.lookupParts(inventory);
+        }
+        try {
+            Part part = inventory.lookupPart(Integer.parseInt(searchValue.trim()));
+            return part == null ? Collections.emptyList() : List.of(part);
+        } catch (NumberFormatException nfe) {
+            return inventory.lookupPart(searchValue.trim());
+        }
+    }
+
+    private List<Product> findProducts(String searchValue) {
+        RangeQuery rangeQuery = RangeQuery.parse(searchValue);
+        if (rangeQuery != null) {
+            return rangeQuery.lookupProducts(inventory);
+        }
+        try {
+            Product product = inventory.lookupProduct(Integer.parseInt(searchValue.trim()));
+            return product == null ? Collections.emptyList() : List.of(product);
+        } catch (NumberFormatException nfe) {
+            return inventory.lookupProduct(searchValue.trim());
+        }
+    }
+
+    private void adjustStock(HttpExchange exchange, int partId, Map<String, String> query) throws IOException {
+        if (query.size() != 1) {
+            throw new HttpError(400, "Give one of receive, reserve, release or consume");
+        }
+        String action = query.keySet().iterator().next();
+        int quantity = parseInt(query.get(action));
+        if (quantity <= 0) {
+            throw new HttpError(400, "Quantity must be positive");
+        }
+
+        StockLedger.Adjustment adjustment;
+        try {
+            switch (action) {
+                case "receive":
+                    adjustment = stockLedger.receive(partId, quantity);
+                    break;
+                case "reserve":
+                    adjustment = stockLedger.reserve(partId, quantity);
+                    break;
+                case "release":
+                    adjustment = stockLedger.release(partId, quantity);
+                    break;
+                case "consume":
+                    adjustment = stockLedger.consume(partId, quantity);
+                    break;
+                default:
+                    throw new HttpError(400, "Unknown stock action " + action);
+            }
+        } catch (IllegalArgumentException iae) {
+            throw new HttpError(404, iae.getMessage());
+        }
+
+        // Refused adjustments would have left the stock outside the Part's min and max
+        sendJson(exchange, adjustment.isAdjusted() ? 200 : 409, false, json -> json.beginObject()
+                .name("id").value(partId)
+                .name("adjusted").value(adjustment.isAdjusted())
+                .name("stock").value(adjustment.getStock())
+                .name("reserved").value(adjustment.getReserved())
+                .name("available").value(adjustment.getAvailable())
+                .endObject());
+    }
+
+    private InventorySnapshot snapshot() throws IOException {
+        // Taken on the writer thread like any edit; reading it is then safe on this one
+        try {
+            return writer.submit(inventory::snapshot).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a snapshot", ie);
+        } catch (ExecutionException ee) {
+            throw new IOException("Unable to take a snapshot", ee.getCause());
+        }
+    }
+
+    private static <T> List<T> page(List<T> rows, Map<String, String> query) {
+        int offset = query.containsKey("offset") ? parseInt(query.get("offset")) : 0;
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit")) : Integer.MAX_VALUE;
+        if (offset < 0 || limit < 0) {
+            throw new HttpError(400, "offset and limit can't be negative");
+        }
+
+        int from = Math.min(offset, rows.size());
+        int to = (int) Math.min((long) from + limit, rows.size());
+        return from == 0 && to == rows.size() ? rows : rows.subList(from, to);
+    }
+
+    private static void writeParts(JsonWriter json, List<Part> parts) throws IOException {
+        json.beginArray();
+        for (Part part : parts) {
+            writePart(json, part);
+        }
+        json.endArray();
+    }
+
+    private static void writePart(JsonWriter json, Part part) throws IOException {
+        json.beginObject()
+                .name("id").value(part.getId())
+                .name("name").value(part.getName())
+                .name("price").value(part.getPriceCents(), 2)
+                .name("stock").value(part.getStock())
+                .name("min").value(part.getMin())
+                .name("max").value(part.getMax());
+
+        if (part instanceof InHouse) {
+            json.name("type").value("InHouse").name("machineId").value(((InHouse) part).getMachineId());
+        } else if (part instanceof Outsourced) {
+            json.name("type").value("Outsourced").name("companyName").value(((Outsourced) part).getCompanyName());
+        }
+        json.endObject();
+    }
+
+    private static void writeProducts(JsonWriter json, List<Product> products) throws IOException {
+        json.beginArray();
+        for (Product product : products) {
+            writeProduct(json, product);
+        }
+        json.endArray();
+    }
+
+    private static void writeProduct(JsonWriter json, Product product) throws IOException {
+        json.beginObject()
+                .name("id").value(product.getId())
+                .name("name").value(product.getName())
+                .name("price").value(product.getPriceCents(), 2)
+                .name("stock").value(product.getStock())
+                .name("min").value(product.getMin())
+                .name("max").value(product.getMax())
+                .name("partIds").beginArray();
+        for (Part part : product.getAllAssociatedParts()) {
+            json.value(part.getId());
+        }
+        json.endArray().endObject();
+    }
+
+    private static void handle(HttpExchange exchange, Route route) throws IOException {
+        try {
+            String context = exchange.getHttpContext().getPath();
+            String rest = exchange.getRequestURI().getPath().substring(context.length());
+            if (!rest.isEmpty() && !rest.startsWith("/")) {
+                throw new HttpError(404, "Not found");
+            }
+            String[] path = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+
+            route.handle(exchange, path, parseQuery(exchange.getRequestURI().getRawQuery()));
+        } catch (HttpError error) {
+            sendError(exchange, error.status, error.getMessage());
+        } catch (NumberFormatException nfe) {
+            sendError(exchange, 400, "Invalid number (" + nfe.getMessage() + ")");
+        } catch (RuntimeException e) {
+            // Details stay in the server log; clients only learn that the request failed
+            LOGGER.log(Level.SEVERE, "Failed " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, boolean stream, Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+
+        if (stream) {
+            // Chunked, so rows go out as they are written instead of after the whole list
+            exchange.sendResponseHeaders(status, 0);
+            try (JsonWriter json = new JsonWriter(writer(exchange.getResponseBody()))) {
+                body.write(json);
+            }
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            try (JsonWriter json = new JsonWriter(writer(buffer))) {
+                body.write(json);
+            }
+            exchange.sendResponseHeaders(status, buffer.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                buffer.writeTo(out);
+            }
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        // Too late for an error status once a streamed response has started
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        sendJson(exchange, status, false, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    private static BufferedWriter writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpError(405, "Use " + method);
+        }
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new HttpError(400, "Missing " + name);
+        }
+        return value;
+    }
+
+    private static int parseInt(String value) {
+        return Integer.parseInt(value.trim());
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // --port and --data pick the port and the store directory; only localhost is served
+        int port = DEFAULT_PORT;
+        Path data = Paths.get(System.getProperty("user.home"), ".dorman-inventory");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--port")) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--data")) {
+                data = Paths.get(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // Fails straight away while the GUI or another server has the same store open
+        InventoryStore store = new LogInventoryStore(data);
+        Inventory inventory = store.open();
+        InventoryServer server = new InventoryServer(inventory,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                store.close();
+            } catch (IOException ioe) {
+                System.err.println("Unable to close the store: " + ioe.getMessage());
+            }
+        }, "inventory-shutdown"));
+
+        server.start();
+        System.out.println("Serving the Inventory at http://localhost:" + server.getPort() + "/");
+    }
+
+    private interface Route {
+        void handle(HttpExchange exchange, String[] path, Map<String, String> query) throws IOException;
+    }
+
+    private interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
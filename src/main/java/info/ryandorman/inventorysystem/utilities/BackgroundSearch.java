@@ -0,0 +1,81 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a search off the JavaFX Application Thread. Queries are debounced, a newer query cancels
+ * the one before it, and only the latest query's result is handed back on the FX thread.
+ */
+public class BackgroundSearch<R> {
+
+    private static final long DEBOUNCE_MILLIS = 150;
+
+    // Shared by every search field; daemon threads so an in-flight search never holds the app open
+    private static final ScheduledExecutorService EXECUTOR = createExecutor();
+
+    private final Function<String, R> search;
+    private final Consumer<R> publish;
+    private Future<?> pending;
+    private long generation;
+
+    public BackgroundSearch(Function<String, R> search, Consumer<R> publish) {
+        this.search = search;
+        this.publish = publish;
+    }
+
+    public synchronized void submit(String query) {
+        long submitted = ++generation;
+
+        if (pending != null) {
+            pending.cancel(true);
+        }
+
+        pending = EXECUTOR.schedule(() -> {
+            R result = search.apply(query);
+
+            // Drop the result if a newer query was submitted while this one ran
+            if (isCurrent(submitted)) {
+                Platform.runLater(() -> {
+                    if (isCurrent(submitted)) {
+                        publish.accept(result);
+                    }
+                });
+            }
+        }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void cancel() {
+        generation++;
+
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    private synchronized boolean isCurrent(long submitted) {
+        return submitted == generation;
+    }
+
+    private static ScheduledExecutorService createExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
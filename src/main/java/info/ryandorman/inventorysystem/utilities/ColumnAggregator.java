@@ -0,0 +1,44 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+/**
+ * Sums over primitive long columns, such as prices in cents and stock levels. The shared instance
+ * uses the Vector API when the JVM was started with {@code --add-modules jdk.incubator.vector} and
+ * plain loops otherwise; both give the same exact results. A sum that would overflow a long throws
+ * an ArithmeticException instead of wrapping to a wrong total.
+ */
+public abstract class ColumnAggregator {
+
+    private static final ColumnAggregator INSTANCE = create();
+
+    public static ColumnAggregator get() {
+        return INSTANCE;
+    }
+
+    // The sum of the first length values
+    public abstract long sum(long[] values, int length);
+
+    // The sum of values[i] * weights[i], such as price times stock
+    public abstract long sumOfProducts(long[] values, long[] weights, int length);
+
+    // The sum of (values[i] - offsets[i]) * weights[i], such as price less cost times stock
+    public abstract long sumOfDifferenceProducts(long[] values, long[] offsets, long[] weights, int length);
+
+    private static ColumnAggregator create() {
+        // The incubator module is only resolved when asked for, so check before loading the class that uses it
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ColumnAggregator) Class.forName(ColumnAggregator.class.getPackageName() + ".VectorColumnAggregator")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall back to the plain loops
+            }
+        }
+        return new ScalarColumnAggregator();
+    }
+}
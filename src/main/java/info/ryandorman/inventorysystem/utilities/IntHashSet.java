@@ -0,0 +1,149 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing set of primitive ints, the set counterpart of {@link IntObjectMap}.
+ */
+public class IntHashSet {
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(Math.max(DEFAULT_CAPACITY, capacity));
+    }
+
+    public boolean contains(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    public boolean add(int key) {
+        int slot = mix(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        used[slot] = true;
+
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+
+        return true;
+    }
+
+    public boolean remove(int key) {
+        int gap = findSlot(key);
+
+        if (gap < 0) {
+            return false;
+        }
+
+        // Backward-shift the rest of the probe chain into the freed slot
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+
+            if (!used[slot]) {
+                used[gap] = false;
+                break;
+            }
+
+            int home = mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+        }
+
+        size--;
+        return true;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int findSlot(int key) {
+        int slot = mix(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
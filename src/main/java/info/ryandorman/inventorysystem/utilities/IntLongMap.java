@@ -0,0 +1,147 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive ints to primitive longs. Same layout as
+ * {@link IntObjectMap}, with a used flag per slot since any long is a valid value.
+ */
+public class IntLongMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntLongMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    public boolean containsKey(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    public long get(int key, long missing) {
+        int slot = findSlot(key);
+        return slot < 0 ? missing : values[slot];
+    }
+
+    public void put(int key, long value) {
+        int slot = mix(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public boolean remove(int key) {
+        int slot = findSlot(key);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int findSlot(int key) {
+        int slot = mix(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void shiftBack(int gap) {
+        // Pull later entries of the probe chain into the gap so lookups never stop early
+        int slot = gap;
+
+        while (true) {
+            slot = (slot + 1) & mask;
+
+            if (!used[slot]) {
+                used[gap] = false;
+                return;
+            }
+
+            int home = mix(keys[slot]) & mask;
+
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
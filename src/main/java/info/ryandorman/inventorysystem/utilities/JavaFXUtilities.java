@@ -5,13 +5,19 @@ package info.ryandorman.inventorysystem.utilities;
  *   ID: 001002824
  */
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.DialogPane;
+import javafx.scene.control.TableColumn;
 import javafx.scene.control.TextFormatter;
+import javafx.util.Callback;
 import javafx.util.StringConverter;
 
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
@@ -24,6 +30,10 @@ public class JavaFXUtilities {
         return alertUser(Alert.AlertType.WARNING, title, header, content);
     }
 
+    public static boolean informUser(String title, String header, String content) {
+        return alertUser(Alert.AlertType.INFORMATION, title, header, content);
+    }
+
     private static boolean alertUser(Alert.AlertType type, String title, String header, String content) {
         // Create Confirmation Alert and set the stylesheet on the pane
         Alert alert = new Alert(type);
@@ -77,4 +87,39 @@ public class JavaFXUtilities {
             }
         }
     };
+
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> cellValue(Function<S, T> getter) {
+        // Read the value straight from the getter instead of PropertyValueFactory's reflective lookup
+        return features -> new ConstantValue<>(getter.apply(features.getValue()));
+    }
+
+    private static class ConstantValue<T> implements ObservableValue<T> {
+        // Cell values are re-read whenever a row is refreshed, so they never change and need no listeners
+        private final T value;
+
+        private ConstantValue(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+    }
 }
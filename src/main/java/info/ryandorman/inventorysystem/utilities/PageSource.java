@@ -0,0 +1,20 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.List;
+
+/**
+ * Rows kept outside the heap, such as in a mapped file, that a {@link PagedObservableList}
+ * materializes one window at a time. The rows must not change while a list is paging over them.
+ */
+public interface PageSource<T> {
+
+    int size();
+
+    // Materialize rows from up to from + count, stopping at the end of the source
+    List<T> fetch(int from, int count);
+}
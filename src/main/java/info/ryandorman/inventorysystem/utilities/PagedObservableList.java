@@ -0,0 +1,85 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.collections.ObservableListBase;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only ObservableList over a {@link PageSource} that materializes rows a page at a time as
+ * they are asked for and keeps only the most recently used pages. A TableView only asks for the
+ * rows in its viewport, so with pages sized to the viewport, scrolling through millions of rows
+ * holds a bounded number of them on the heap. The source never changes, so neither does the list.
+ */
+public class PagedObservableList<T> extends ObservableListBase<T> {
+
+    private final PageSource<T> source;
+    private final int size;
+    private final int maxPages;
+    private int pageSize;
+    private Map<Integer, List<T>> pages;
+
+    public PagedObservableList(PageSource<T> source, int pageSize, int maxPages) {
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("Must keep at least one page");
+        }
+        this.source = source;
+        this.size = source.size();
+        this.maxPages = maxPages;
+        setPageSize(pageSize);
+    }
+
+    public void setPageSize(int pageSize) {
+        // Called as the viewport is resized; pages of the old size are dropped rather than split
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (pageSize == this.pageSize) {
+            return;
+        }
+        this.pageSize = pageSize;
+
+        // Access-ordered so the least recently viewed page is the one evicted
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            rows = source.fetch(page * pageSize, pageSize);
+            pages.put(page, rows);
+        }
+
+        return rows.get(index - page * pageSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
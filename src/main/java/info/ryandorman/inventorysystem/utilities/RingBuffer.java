@@ -0,0 +1,177 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fixed ring of preallocated entries written by a single thread and read by any number of readers,
+ * each on its own thread. The writer claims a sequence, fills in that entry and publishes it, with
+ * no locks or allocation. Readers never hold the writer back: one that falls a whole ring behind
+ * has lost the overwritten entries, which it counts and skips past. Each entry is copied into the
+ * reader's own scratch entry and checked for having been overwritten during the copy before the
+ * reader's handler sees it.
+ */
+public class RingBuffer<E> {
+
+    private static final VarHandle CLAIMED;
+    private static final VarHandle PUBLISHED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CLAIMED = lookup.findVarHandle(RingBuffer.class, "claimed", long.class);
+            PUBLISHED = lookup.findVarHandle(RingBuffer.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] entries;
+    private final int mask;
+    private final Supplier<E> factory;
+    private final BiConsumer<? super E, ? super E> copier;
+
+    // Highest sequence the writer has started to overwrite and highest it has finished, -1 before the first
+    @SuppressWarnings("unused")
+    private long claimed = -1;
+    @SuppressWarnings("unused")
+    private long published = -1;
+
+    public RingBuffer(int capacity, Supplier<E> factory, BiConsumer<? super E, ? super E> copier) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.factory = factory;
+        this.copier = copier;
+
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+        }
+    }
+
+    public long claim() {
+        // Readers copying the entry about to be reused will see the claim and discard their copy
+        long sequence = (long) CLAIMED.get(this) + 1;
+        CLAIMED.setOpaque(this, sequence);
+        VarHandle.storeStoreFence();
+        return sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        PUBLISHED.setRelease(this, sequence);
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public long getPublished() {
+        return (long) PUBLISHED.getAcquire(this);
+    }
+
+    public Reader<E> newReader() {
+        // Starts after the last published entry, so it only sees what is written from now on
+        return new Reader<>(this, getPublished() + 1);
+    }
+
+    public static class Reader<E> {
+        private final RingBuffer<E> ring;
+        private final E scratch;
+        private long next;
+        private long lost;
+
+        private Reader(RingBuffer<E> ring, long next) {
+            this.ring = ring;
+            this.scratch = ring.factory.get();
+            this.next = next;
+        }
+
+        public int drain(Consumer<? super E> handler, int maxBatch) {
+            long available = ring.getPublished();
+            if (available < next) {
+                return 0;
+            }
+
+            // Lapped by the writer, so the oldest unread entries are gone
+            long oldest = available - ring.mask;
+            if (next < oldest) {
+                lost += oldest - next;
+                next = oldest;
+            }
+
+            long end = Math.min(available, next + maxBatch - 1);
+            int drained = 0;
+            while (next <= end) {
+                ring.copier.accept(ring.get(next), scratch);
+
+                // A claim that reached this slot during the copy means the copy may be torn;
+                // the next drain skips ahead past it
+                VarHandle.loadLoadFence();
+                if ((long) CLAIMED.getOpaque(ring) - ring.entries.length >= next) {
+                    break;
+                }
+
+                next++;
+                drained++;
+                handler.accept(scratch);
+            }
+            return drained;
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            // Spins briefly, then yields, then parks in short steps, so the writer never has to wake anyone
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            int idle = 0;
+
+            while (ring.getPublished() < next) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                if (idle < 100) {
+                    Thread.onSpinWait();
+                } else if (idle < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(1)));
+                }
+                idle++;
+            }
+            return true;
+        }
+
+        public long getNext() {
+            return next;
+        }
+
+        public long getLag() {
+            return Math.max(0, ring.getPublished() + 1 - next);
+        }
+
+        public long getLost() {
+            return lost;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+/**
+ * Column sums as plain loops with every step checked for overflow, used when the Vector API isn't
+ * available and by the vector version when its inputs are too large to sum unchecked.
+ */
+public class ScalarColumnAggregator extends ColumnAggregator {
+
+    @Override
+    public long sum(long[] values, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum = Math.addExact(sum, values[i]);
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfProducts(long[] values, long[] weights, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(values[i], weights[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfDifferenceProducts(long[] values, long[] offsets, long[] weights, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(Math.subtractExact(values[i], offsets[i]), weights[i]));
+        }
+        return sum;
+    }
+}
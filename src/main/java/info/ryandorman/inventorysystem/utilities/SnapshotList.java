@@ -0,0 +1,524 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * List stored as a run of fixed-capacity chunks that can hand out immutable snapshots in O(1).
+ * A snapshot shares every chunk with the live list; the list copies a chunk, and its small table of
+ * chunks, only the first time it writes to them after a snapshot, so taking a snapshot never copies
+ * the elements and a later edit copies a single chunk. Snapshots can be read from any thread while
+ * the list keeps changing; the list itself is not thread-safe.
+ * <p>
+ * Given a key function, the list also tracks which chunk holds each key, so the position of an
+ * element is found by scanning one chunk instead of the whole list.
+ */
+public class SnapshotList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int CHUNK_SIZE = 256;
+
+    private Chunk[] chunks = new Chunk[8];
+    // starts[i] is the index of the first element of chunk i, and starts[chunkCount] is the size
+    private int[] starts = new int[9];
+    private int chunkCount;
+
+    // Chunks made in the current epoch belong to this list alone; older ones may be in a snapshot
+    private long epoch;
+    private boolean tablesShared;
+    private int lastChunk;
+
+    private final ToIntFunction<? super T> keyOf;
+    private final IntObjectMap<Chunk> chunksByKey;
+
+    public SnapshotList() {
+        this.keyOf = null;
+        this.chunksByKey = null;
+    }
+
+    public SnapshotList(ToIntFunction<? super T> keyOf) {
+        this.keyOf = keyOf;
+        this.chunksByKey = new IntObjectMap<>();
+    }
+
+    public List<T> snapshot() {
+        tablesShared = true;
+        epoch++;
+        return new Snapshot<>(chunks, starts, chunkCount);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index, size());
+        int c = chunkOf(index);
+        return (T) chunks[c].items[index - starts[c]];
+    }
+
+    @Override
+    public int size() {
+        return starts[chunkCount];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        checkIndex(index, size());
+        ownTables();
+        int c = chunkOf(index);
+        Chunk chunk = ownChunk(c);
+        int offset = index - starts[c];
+        T previous = (T) chunk.items[offset];
+        if (chunksByKey != null && keyOf.applyAsInt(previous) != keyOf.applyAsInt(element)) {
+            unmapKeys(chunk, offset, offset + 1);
+            chunk.items[offset] = element;
+            mapKeys(chunk, offset, offset + 1);
+        } else {
+            chunk.items[offset] = element;
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size() + 1);
+        ownTables();
+
+        if (chunkCount == 0) {
+            insertChunks(0, new Chunk(epoch));
+        }
+
+        int c = index == size() ? chunkCount - 1 : chunkOf(index);
+        int offset = index - starts[c];
+        Chunk chunk;
+
+        if (offset == CHUNK_SIZE) {
+            // Appending past a full chunk starts a new one, so a list built in order stays packed
+            chunk = new Chunk(epoch);
+            insertChunks(c + 1, chunk);
+            offset = 0;
+        } else {
+            chunk = ownChunk(c);
+            if (chunk.size == CHUNK_SIZE) {
+                // Split a full chunk in half and insert into whichever half the index falls in
+                Chunk upper = chunk.splitOff(chunk.size / 2, epoch);
+                insertChunks(c + 1, upper);
+                mapKeys(upper, 0, upper.size);
+                if (offset > chunk.size) {
+                    offset -= chunk.size;
+                    chunk = upper;
+                }
+            }
+        }
+
+        chunk.insert(offset, element);
+        mapKeys(chunk, offset, offset + 1);
+        updateStarts(c);
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> col) {
+        return addAll(size(), col);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> col) {
+        checkIndex(index, size() + 1);
+        Object[] added = col.toArray();
+        if (added.length == 0) {
+            return false;
+        }
+
+        if (added.length < CHUNK_SIZE) {
+            for (Object element : added) {
+                @SuppressWarnings("unchecked")
+                T typed = (T) element;
+                add(index++, typed);
+            }
+            return true;
+        }
+
+        // Large additions are cut into new full chunks placed between the two halves of the split chunk
+        ownTables();
+        int c = chunkCount;
+        if (index < size()) {
+            c = chunkOf(index);
+            int offset = index - starts[c];
+            if (offset > 0) {
+                Chunk upper = ownChunk(c).splitOff(offset, epoch);
+                insertChunks(c + 1, upper);
+                mapKeys(upper, 0, upper.size);
+                updateStarts(c);
+                c++;
+            }
+        }
+
+        Chunk[] fresh = new Chunk[(added.length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int i = 0; i < fresh.length; i++) {
+            fresh[i] = new Chunk(epoch);
+            int from = i * CHUNK_SIZE;
+            fresh[i].size = Math.min(CHUNK_SIZE, added.length - from);
+            System.arraycopy(added, from, fresh[i].items, 0, fresh[i].size);
+            mapKeys(fresh[i], 0, fresh[i].size);
+        }
+        insertChunks(c, fresh);
+        updateStarts(c);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        T previous = get(index);
+        removeRange(index, index + 1);
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        ownTables();
+
+        int first = chunkOf(fromIndex);
+        int last = chunkOf(toIndex - 1);
+        int headKept = fromIndex - starts[first];
+        int tailKept = starts[last + 1] - toIndex;
+
+        if (first == last) {
+            Chunk chunk = ownChunk(first);
+            unmapKeys(chunk, headKept, headKept + toIndex - fromIndex);
+            chunk.delete(headKept, toIndex - fromIndex);
+            if (chunk.size == 0) {
+                removeChunks(first, first + 1);
+            }
+        } else {
+            // Trim the two end chunks and drop every chunk wholly inside the range without copying it
+            int dropFrom = first;
+            int dropTo = last + 1;
+            if (headKept > 0) {
+                Chunk head = ownChunk(first);
+                unmapKeys(head, headKept, head.size);
+                head.delete(headKept, head.size - headKept);
+                dropFrom++;
+            }
+            if (tailKept > 0) {
+                Chunk tail = ownChunk(last);
+                unmapKeys(tail, 0, tail.size - tailKept);
+                tail.delete(0, tail.size - tailKept);
+                dropTo--;
+            }
+            for (int c = dropFrom; c < dropTo; c++) {
+                unmapKeys(chunks[c], 0, chunks[c].size);
+            }
+            removeChunks(dropFrom, dropTo);
+        }
+
+        updateStarts(Math.min(first, chunkCount));
+        modCount++;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        // Walks the chunks in place of the index lookups AbstractList's iterator makes
+        int expectedModCount = modCount;
+        return new ChunkIterator<T>(chunks, starts, chunkCount) {
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                return super.next();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        forEachIn(chunks, starts, chunkCount, action);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        // Scans the chunk arrays directly rather than looking up each index
+        for (int c = 0; c < chunkCount; c++) {
+            Object[] items = chunks[c].items;
+            for (int i = 0, size = chunks[c].size; i < size; i++) {
+                if (o == null ? items[i] == null : o.equals(items[i])) {
+                    return starts[c] + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public int indexOfKey(int key) {
+        // Position of an element with this key, found through its chunk, or -1 if no chunk holds the key
+        Chunk chunk = chunksByKey == null ? null : chunksByKey.get(key);
+        if (chunk == null || chunk.index >= chunkCount || chunks[chunk.index] != chunk) {
+            return -1;
+        }
+        for (int i = 0; i < chunk.size; i++) {
+            @SuppressWarnings("unchecked")
+            T element = (T) chunk.items[i];
+            if (keyOf.applyAsInt(element) == key) {
+                return starts[chunk.index] + i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int c = chunkCount - 1; c >= 0; c--) {
+            Object[] items = chunks[c].items;
+            for (int i = chunks[c].size - 1; i >= 0; i--) {
+                if (o == null ? items[i] == null : o.equals(items[i])) {
+                    return starts[c] + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void clear() {
+        chunks = new Chunk[8];
+        starts = new int[9];
+        chunkCount = 0;
+        tablesShared = false;
+        lastChunk = 0;
+        if (chunksByKey != null) {
+            chunksByKey.clear();
+        }
+        modCount++;
+    }
+
+    private int chunkOf(int index) {
+        // Sequential reads stay in the same chunk, so try the last one found before searching
+        if (lastChunk < chunkCount && starts[lastChunk] <= index && index < starts[lastChunk + 1]) {
+            return lastChunk;
+        }
+        lastChunk = findChunk(starts, chunkCount, index);
+        return lastChunk;
+    }
+
+    private void ownTables() {
+        if (tablesShared) {
+            chunks = chunks.clone();
+            starts = starts.clone();
+            tablesShared = false;
+        }
+    }
+
+    private Chunk ownChunk(int c) {
+        Chunk chunk = chunks[c];
+        if (chunk.epoch != epoch) {
+            chunk = chunk.copy(epoch);
+            chunks[c] = chunk;
+            mapKeys(chunk, 0, chunk.size);
+        }
+        return chunk;
+    }
+
+    private void insertChunks(int position, Chunk... inserted) {
+        if (chunkCount + inserted.length > chunks.length) {
+            int capacity = Math.max(chunks.length * 2, chunkCount + inserted.length);
+            chunks = Arrays.copyOf(chunks, capacity);
+            starts = Arrays.copyOf(starts, capacity + 1);
+        }
+        System.arraycopy(chunks, position, chunks, position + inserted.length, chunkCount - position);
+        System.arraycopy(inserted, 0, chunks, position, inserted.length);
+        chunkCount += inserted.length;
+    }
+
+    private void removeChunks(int from, int to) {
+        System.arraycopy(chunks, to, chunks, from, chunkCount - to);
+        Arrays.fill(chunks, chunkCount - (to - from), chunkCount, null);
+        chunkCount -= to - from;
+    }
+
+    private void updateStarts(int from) {
+        for (int c = from; c < chunkCount; c++) {
+            starts[c + 1] = starts[c] + chunks[c].size;
+            chunks[c].index = c;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mapKeys(Chunk chunk, int from, int to) {
+        if (chunksByKey != null) {
+            for (int i = from; i < to; i++) {
+                chunksByKey.put(keyOf.applyAsInt((T) chunk.items[i]), chunk);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unmapKeys(Chunk chunk, int from, int to) {
+        // A key shared by two elements may already point at the other one's chunk, which is left alone
+        if (chunksByKey != null) {
+            for (int i = from; i < to; i++) {
+                int key = keyOf.applyAsInt((T) chunk.items[i]);
+                if (chunksByKey.get(key) == chunk) {
+                    chunksByKey.remove(key);
+                }
+            }
+        }
+    }
+
+    private static int findChunk(int[] starts, int chunkCount, int index) {
+        // Last chunk starting at or before the index
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void forEachIn(Chunk[] chunks, int[] starts, int chunkCount, Consumer<? super T> action) {
+        for (int c = 0; c < chunkCount; c++) {
+            Object[] items = chunks[c].items;
+            for (int i = 0, size = starts[c + 1] - starts[c]; i < size; i++) {
+                action.accept((T) items[i]);
+            }
+        }
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+
+    private static class Chunk {
+        private final long epoch;
+        private final Object[] items = new Object[CHUNK_SIZE];
+        private int size;
+        // Position in the live list's chunk table; not read through snapshots
+        private int index;
+
+        private Chunk(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private Chunk copy(long newEpoch) {
+            Chunk copy = new Chunk(newEpoch);
+            System.arraycopy(items, 0, copy.items, 0, size);
+            copy.size = size;
+            copy.index = index;
+            return copy;
+        }
+
+        private Chunk splitOff(int keep, long newEpoch) {
+            Chunk upper = new Chunk(newEpoch);
+            upper.size = size - keep;
+            System.arraycopy(items, keep, upper.items, 0, upper.size);
+            Arrays.fill(items, keep, size, null);
+            size = keep;
+            return upper;
+        }
+
+        private void insert(int offset, Object element) {
+            System.arraycopy(items, offset, items, offset + 1, size - offset);
+            items[offset] = element;
+            size++;
+        }
+
+        private void delete(int offset, int count) {
+            System.arraycopy(items, offset + count, items, offset, size - offset - count);
+            Arrays.fill(items, size - count, size, null);
+            size -= count;
+        }
+    }
+
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        // Only the chunk items are read here, and the live list never writes to a chunk it has shared
+        private final Chunk[] chunks;
+        private final int[] starts;
+        private final int chunkCount;
+
+        private Snapshot(Chunk[] chunks, int[] starts, int chunkCount) {
+            this.chunks = chunks;
+            this.starts = starts;
+            this.chunkCount = chunkCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            checkIndex(index, size());
+            int c = findChunk(starts, chunkCount, index);
+            return (T) chunks[c].items[index - starts[c]];
+        }
+
+        @Override
+        public int size() {
+            return starts[chunkCount];
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new ChunkIterator<>(chunks, starts, chunkCount);
+        }
+
+        @Override
+        public void forEach(Consumer<? super T> action) {
+            forEachIn(chunks, starts, chunkCount, action);
+        }
+    }
+
+    private static class ChunkIterator<T> implements Iterator<T> {
+        private final Chunk[] chunks;
+        private final int[] starts;
+        private final int chunkCount;
+        private int chunk;
+        private int offset;
+
+        private ChunkIterator(Chunk[] chunks, int[] starts, int chunkCount) {
+            this.chunks = chunks;
+            this.starts = starts;
+            this.chunkCount = chunkCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chunk < chunkCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (chunk >= chunkCount) {
+                throw new NoSuchElementException();
+            }
+            T element = (T) chunks[chunk].items[offset++];
+            if (offset == starts[chunk + 1] - starts[chunk]) {
+                chunk++;
+                offset = 0;
+            }
+            return element;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Ids kept sorted by a primitive long key, for range queries. Entries are ordered by key and then
+ * id and stored in chunks of parallel primitive arrays, so an insert or removal only shifts one
+ * small chunk, and a range query is two binary searches followed by a walk over the matches.
+ * Each id's current key is remembered, so an id can be re-keyed or removed by id alone.
+ */
+public class SortedIndex {
+
+    private static final int CHUNK_SIZE = 512;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final IntLongMap keysById = new IntLongMap();
+
+    public void put(int id, long key) {
+        if (keysById.containsKey(id)) {
+            if (keysById.get(id, 0) == key) {
+                return;
+            }
+            remove(id);
+        }
+        keysById.put(id, key);
+
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk());
+        }
+
+        int chunkIndex = chunkFor(key, id);
+        Chunk chunk = chunks.get(chunkIndex);
+        chunk.insert(chunk.position(key, id), key, id);
+
+        if (chunk.size == CHUNK_SIZE) {
+            chunks.add(chunkIndex + 1, chunk.splitOff());
+        }
+    }
+
+    public boolean remove(int id) {
+        if (!keysById.containsKey(id)) {
+            return false;
+        }
+        long key = keysById.get(id, 0);
+        keysById.remove(id);
+
+        int chunkIndex = chunkFor(key, id);
+        Chunk chunk = chunks.get(chunkIndex);
+        chunk.delete(chunk.position(key, id));
+
+        if (chunk.size == 0) {
+            chunks.remove(chunkIndex);
+        }
+        return true;
+    }
+
+    public long get(int id, long missing) {
+        return keysById.get(id, missing);
+    }
+
+    public void forEachInRange(long fromKey, long toKey, IntConsumer action) {
+        // Both bounds are inclusive; matches come back in key order
+        if (chunks.isEmpty() || fromKey > toKey) {
+            return;
+        }
+
+        int chunkIndex = chunkFor(fromKey, Integer.MIN_VALUE);
+        int position = chunks.get(chunkIndex).position(fromKey, Integer.MIN_VALUE);
+
+        for (; chunkIndex < chunks.size(); chunkIndex++, position = 0) {
+            Chunk chunk = chunks.get(chunkIndex);
+            for (; position < chunk.size; position++) {
+                if (chunk.keys[position] > toKey) {
+                    return;
+                }
+                action.accept(chunk.ids[position]);
+            }
+        }
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    public void clear() {
+        chunks.clear();
+        keysById.clear();
+    }
+
+    private int chunkFor(long key, int id) {
+        // First chunk whose last entry is not below (key, id), or the last chunk
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Chunk chunk = chunks.get(middle);
+            if (compare(chunk.keys[chunk.size - 1], chunk.ids[chunk.size - 1], key, id) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long keyA, int idA, long keyB, int idB) {
+        return keyA != keyB ? Long.compare(keyA, keyB) : Integer.compare(idA, idB);
+    }
+
+    private static class Chunk {
+        private long[] keys = new long[CHUNK_SIZE];
+        private int[] ids = new int[CHUNK_SIZE];
+        private int size;
+
+        private int position(long key, int id) {
+            // First slot whose entry is not below (key, id)
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(keys[middle], ids[middle], key, id) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void insert(int position, long key, int id) {
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            keys[position] = key;
+            ids[position] = id;
+            size++;
+        }
+
+        private void delete(int position) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private Chunk splitOff() {
+            Chunk upper = new Chunk();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(keys, half, upper.keys, 0, upper.size);
+            System.arraycopy(ids, half, upper.ids, 0, upper.size);
+            size = half;
+            return upper;
+        }
+    }
+}
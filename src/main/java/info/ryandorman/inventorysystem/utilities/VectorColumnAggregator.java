@@ -0,0 +1,122 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Column sums across as many long lanes as the CPU's widest vectors hold, with a scalar tail for
+ * the last few values. Lanes can't check each step for overflow, so the largest magnitude in each
+ * column is found first and the sum only runs in lanes when that bound times the length fits in a
+ * long; otherwise the checked scalar loops decide. Only loaded by {@link ColumnAggregator} once it
+ * has checked the incubator module is present.
+ */
+public class VectorColumnAggregator extends ColumnAggregator {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private final ColumnAggregator checked = new ScalarColumnAggregator();
+
+    @Override
+    public long sum(long[] values, int length) {
+        if (!fits(magnitude(values, length), length)) {
+            return checked.sum(values, length);
+        }
+
+        LongVector sums = LongVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            sums = sums.add(LongVector.fromArray(SPECIES, values, i));
+        }
+
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfProducts(long[] values, long[] weights, int length) {
+        if (!fits(multiply(magnitude(values, length), magnitude(weights, length)), length)) {
+            return checked.sumOfProducts(values, weights, length);
+        }
+
+        LongVector sums = LongVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            sums = sums.add(LongVector.fromArray(SPECIES, values, i)
+                    .mul(LongVector.fromArray(SPECIES, weights, i)));
+        }
+
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += values[i] * weights[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfDifferenceProducts(long[] values, long[] offsets, long[] weights, int length) {
+        long difference = add(magnitude(values, length), magnitude(offsets, length));
+        if (!fits(multiply(difference, magnitude(weights, length)), length)) {
+            return checked.sumOfDifferenceProducts(values, offsets, weights, length);
+        }
+
+        LongVector sums = LongVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            sums = sums.add(LongVector.fromArray(SPECIES, values, i)
+                    .sub(LongVector.fromArray(SPECIES, offsets, i))
+                    .mul(LongVector.fromArray(SPECIES, weights, i)));
+        }
+
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += (values[i] - offsets[i]) * weights[i];
+        }
+        return sum;
+    }
+
+    private static long magnitude(long[] values, int length) {
+        // The largest absolute value in the column, or -1 when one of them is Long.MIN_VALUE
+        LongVector mins = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        LongVector maxes = LongVector.broadcast(SPECIES, Long.MIN_VALUE);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            LongVector vector = LongVector.fromArray(SPECIES, values, i);
+            mins = mins.min(vector);
+            maxes = maxes.max(vector);
+        }
+
+        long min = mins.reduceLanes(VectorOperators.MIN);
+        long max = maxes.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        if (length == 0) {
+            return 0;
+        }
+        return min == Long.MIN_VALUE ? -1 : Math.max(Math.abs(min), Math.abs(max));
+    }
+
+    private static long add(long a, long b) {
+        // Magnitudes of -1 stand for too large, and stay that way
+        return a < 0 || b < 0 || a > Long.MAX_VALUE - b ? -1 : a + b;
+    }
+
+    private static long multiply(long a, long b) {
+        return a < 0 || b < 0 || (a != 0 && b > Long.MAX_VALUE / a) ? -1 : a * b;
+    }
+
+    private static boolean fits(long magnitude, int length) {
+        // Every partial sum, in a lane or across them, is at most the largest term times the length
+        return multiply(magnitude, length) >= 0;
+    }
+}
@@ -0,0 +1,163 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Views loaded from FXML once and reused. Switching to a cached view swaps the root of the Stage's
+ * Scene, or reshows the same modal Stage, so the only work left per switch is the controller's
+ * initData. Views can be parsed on a background thread ahead of their first use with
+ * {@link #prewarm(String...)}; controllers must not touch a live Scene from initialize for this to
+ * be safe. Load times and switch latencies are logged at FINE.
+ */
+public class ViewCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ViewCache.class.getName());
+
+    private static final Map<String, CompletableFuture<View<?>>> VIEWS = new ConcurrentHashMap<>();
+
+    private static final Executor PREWARM = task -> {
+        Thread thread = new Thread(task, "view-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    public static void prewarm(String... locations) {
+        for (String location : locations) {
+            VIEWS.computeIfAbsent(location, key -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return load(key);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }, PREWARM));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <C> View<C> get(String location) throws IOException {
+        long requestedAt = System.nanoTime();
+
+        CompletableFuture<View<?>> view = VIEWS.get(location);
+        if (view == null) {
+            // Loaded on the caller's thread; a prewarm that finished first wins
+            CompletableFuture<View<?>> loaded = CompletableFuture.completedFuture(load(location));
+            view = VIEWS.putIfAbsent(location, loaded);
+            if (view == null) {
+                view = loaded;
+            }
+        }
+
+        try {
+            View<C> cached = (View<C>) view.join();
+            cached.requestedAt = requestedAt;
+            return cached;
+        } catch (CompletionException ce) {
+            // Forget the failed load so the next request tries again
+            VIEWS.remove(location, view);
+            Throwable cause = ce.getCause() instanceof UncheckedIOException ? ce.getCause().getCause() : ce.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Unable to load " + location, cause);
+        }
+    }
+
+    public static void show(Stage stage, View<?> view, double width, double height) {
+        // The first view creates the Scene, later ones only swap its root
+        Scene scene = stage.getScene();
+        if (scene == null) {
+            scene = new Scene(view.root, width, height);
+            stage.setScene(scene);
+        } else if (scene.getRoot() != view.root) {
+            scene.setRoot(view.root);
+        }
+
+        logSwitch(scene, view);
+        stage.show();
+    }
+
+    public static void showAndWait(View<?> view, Window owner, String title, double width, double height) {
+        // A modal view keeps its own Stage, created on first use
+        if (view.modalStage == null) {
+            view.modalStage = new Stage();
+            view.modalStage.setScene(new Scene(view.root, width, height));
+            view.modalStage.initOwner(owner);
+            view.modalStage.initModality(Modality.APPLICATION_MODAL);
+        }
+
+        view.modalStage.setTitle(title);
+        logSwitch(view.modalStage.getScene(), view);
+        view.modalStage.showAndWait();
+    }
+
+    private static View<?> load(String location) throws IOException {
+        long start = System.nanoTime();
+
+        FXMLLoader loader = new FXMLLoader(ViewCache.class.getResource(location));
+        Parent root = loader.load();
+        View<?> view = new View<>(location, root, loader.getController());
+
+        LOGGER.log(Level.FINE, () -> String.format("Loaded %s in %.1f ms on %s",
+                location, (System.nanoTime() - start) / 1e6, Thread.currentThread().getName()));
+        return view;
+    }
+
+    private static void logSwitch(Scene scene, View<?> view) {
+        if (!LOGGER.isLoggable(Level.FINE)) {
+            return;
+        }
+
+        // The switch is complete once the first layout pass after it has run
+        long requestedAt = view.requestedAt;
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                LOGGER.fine(String.format("Switched to %s in %.1f ms",
+                        view.location, (System.nanoTime() - requestedAt) / 1e6));
+            }
+        });
+    }
+
+    public static class View<C> {
+        private final String location;
+        private final Parent root;
+        private final C controller;
+        private Stage modalStage;
+        private long requestedAt;
+
+        private View(String location, Parent root, C controller) {
+            this.location = location;
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() {
+            return root;
+        }
+
+        public C getController() {
+            return controller;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Indexed binary min-heap of items keyed by an int, with ties broken by id. Each item's heap slot
+ * is tracked by id, so re-keying or removing one item costs O(log n), and the items with the
+ * smallest keys are read off the top without touching the rest of the heap.
+ */
+public class WatchList<T> {
+
+    private final ToIntFunction<T> idOf;
+    private final ToIntFunction<T> keyOf;
+    private final IntObjectMap<Entry<T>> entries = new IntObjectMap<>();
+    private Entry<T>[] heap;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public WatchList(ToIntFunction<T> idOf, ToIntFunction<T> keyOf) {
+        this.idOf = idOf;
+        this.keyOf = keyOf;
+        this.heap = (Entry<T>[]) new Entry<?>[16];
+    }
+
+    public void update(T item) {
+        // Adds the item, or moves it to where its current key belongs
+        int id = idOf.applyAsInt(item);
+        int key = keyOf.applyAsInt(item);
+        Entry<T> entry = entries.get(id);
+
+        if (entry == null) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            entry = new Entry<>(item, id, key);
+            entries.put(id, entry);
+            place(entry, size++);
+            siftUp(entry.position);
+            return;
+        }
+
+        int previousKey = entry.key;
+        entry.item = item;
+        entry.key = key;
+        if (key < previousKey) {
+            siftUp(entry.position);
+        } else if (key > previousKey) {
+            siftDown(entry.position);
+        }
+    }
+
+    public void remove(T item) {
+        // Only drop the entry if it still belongs to this item and not to a replacement with the same id
+        Entry<T> entry = entries.get(idOf.applyAsInt(item));
+        if (entry == null || entry.item != item) {
+            return;
+        }
+
+        entries.remove(entry.id);
+        int position = entry.position;
+        Entry<T> last = heap[--size];
+        heap[size] = null;
+
+        if (position < size) {
+            place(last, position);
+            siftDown(position);
+            siftUp(last.position);
+        }
+    }
+
+    public T peek() {
+        return size == 0 ? null : heap[0].item;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<T> smallest(int limit, int maxKey) {
+        // Best-first walk from the root: a child is only looked at once its parent has been taken
+        List<T> found = new ArrayList<>(Math.min(limit, size));
+        PriorityQueue<Entry<T>> frontier = new PriorityQueue<>(WatchList::compare);
+        if (size > 0) {
+            frontier.add(heap[0]);
+        }
+
+        while (!frontier.isEmpty() && found.size() < limit) {
+            Entry<T> entry = frontier.poll();
+            if (entry.key > maxKey) {
+                break;
+            }
+            found.add(entry.item);
+
+            int child = entry.position * 2 + 1;
+            if (child < size) {
+                frontier.add(heap[child]);
+            }
+            if (child + 1 < size) {
+                frontier.add(heap[child + 1]);
+            }
+        }
+
+        return found;
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        entries.clear();
+    }
+
+    private void siftUp(int position) {
+        Entry<T> entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (compare(heap[parent], entry) <= 0) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(entry, position);
+    }
+
+    private void siftDown(int position) {
+        Entry<T> entry = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(entry, position);
+    }
+
+    private void place(Entry<T> entry, int position) {
+        heap[position] = entry;
+        entry.position = position;
+    }
+
+    private static int compare(Entry<?> a, Entry<?> b) {
+        return a.key != b.key ? Integer.compare(a.key, b.key) : Integer.compare(a.id, b.id);
+    }
+
+    private static class Entry<T> {
+        private T item;
+        private final int id;
+        private int key;
+        private int position;
+
+        private Entry(T item, int id, int key) {
+            this.item = item;
+            this.id = id;
+            this.key = key;
+        }
+    }
+}
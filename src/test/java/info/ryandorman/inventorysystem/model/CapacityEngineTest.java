@@ -0,0 +1,111 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class CapacityEngineTest {
+
+    private Inventory inventory;
+    private CapacityEngine engine;
+    private final List<Integer> notified = new ArrayList<>();
+
+    @BeforeEach
+    void buildInventory() {
+        inventory = new Inventory();
+        inventory.addPart(new InHouse(1, "Wheel", 12.50, 9, 0, 100, 7));
+        inventory.addPart(new InHouse(2, "Frame", 80.00, 4, 0, 100, 7));
+        inventory.addPart(new InHouse(3, "Bolt", 0.25, 100, 0, 1000, 7));
+
+        // Two Wheels, one Frame and four Bolts per Bicycle
+        Product bicycle = new Product(1, "Bicycle", 150.00, 0, 0, 10);
+        bicycle.addAssociatedPart(inventory.lookupPart(1));
+        bicycle.addAssociatedPart(inventory.lookupPart(1));
+        bicycle.addAssociatedPart(inventory.lookupPart(2));
+        for (int i = 0; i < 4; i++) {
+            bicycle.addAssociatedPart(inventory.lookupPart(3));
+        }
+        inventory.addProduct(bicycle);
+        inventory.addProduct(new Product(2, "Gift Card", 25.00, 0, 0, 10));
+
+        engine = new CapacityEngine(inventory);
+        engine.addListener(notified::add);
+    }
+
+    @Test
+    void buildsFromTheScarcestPart() {
+        assertEquals(4, engine.getBuildable(1));
+        assertEquals(2 * 1250 + 8000 + 4 * 25, engine.getPartCostCents(1));
+        assertEquals(0, engine.getBuildable(2));
+        assertEquals(0, engine.getPartCostCents(2));
+    }
+
+    @Test
+    void followsTheLimitingLineAsItMoves() {
+        // Frames stop being the limit, so the Wheels become it
+        inventory.updatePart(new InHouse(2, "Frame", 80.00, 50, 0, 100, 7));
+        assertEquals(4, engine.getBuildable(1));
+        assertEquals(List.of(), notified);
+
+        inventory.updatePart(new InHouse(1, "Wheel", 10.00, 40, 0, 100, 7));
+        assertEquals(20, engine.getBuildable(1));
+        assertEquals(2 * 1000 + 8000 + 4 * 25, engine.getPartCostCents(1));
+        assertEquals(List.of(1), notified);
+
+        inventory.updatePart(new InHouse(3, "Bolt", 0.25, 7, 0, 1000, 7));
+        assertEquals(1, engine.getBuildable(1));
+    }
+
+    @Test
+    void picksUpPartsChangedInPlace() {
+        Part wheel = inventory.lookupPart(1);
+        wheel.setStock(3);
+        inventory.refreshParts(List.of(wheel));
+        assertEquals(1, engine.getBuildable(1));
+        assertEquals(List.of(1), notified);
+    }
+
+    @Test
+    void buildsNothingWithoutAPart() {
+        inventory.deletePart(2);
+        assertEquals(0, engine.getBuildable(1));
+        assertEquals(2 * 1250 + 4 * 25, engine.getPartCostCents(1));
+
+        inventory.addPart(new InHouse(2, "Frame", 80.00, 6, 0, 100, 7));
+        assertEquals(4, engine.getBuildable(1));
+        assertEquals(2 * 1250 + 8000 + 4 * 25, engine.getPartCostCents(1));
+    }
+
+    @Test
+    void refusesCostsThatOverflow() {
+        Part wheel = inventory.lookupPart(1);
+        wheel.setPriceCents(Long.MAX_VALUE / 2 + 1);
+
+        // JavaFX hands exceptions thrown by list listeners to the thread's handler
+        List<Throwable> thrown = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> thrown.add(e));
+        try {
+            inventory.refreshParts(List.of(wheel));
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+        assertEquals(1, thrown.size());
+        assertInstanceOf(ArithmeticException.class, thrown.get(0));
+        // The line keeps its last good cost
+        assertEquals(2 * 1250 + 8000 + 4 * 25, engine.getPartCostCents(1));
+        assertEquals(List.of(), notified);
+    }
+}
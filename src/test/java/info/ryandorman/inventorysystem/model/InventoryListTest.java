@@ -0,0 +1,235 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryListTest {
+
+    private final List<Part> indexedAdds = new ArrayList<>();
+    private final List<Part> indexedRemoves = new ArrayList<>();
+    private final List<List<String>> recordedChanges = new ArrayList<>();
+    private InventoryList<Part> list;
+
+    // What the list held before the change being delivered; each change is replayed onto it
+    private List<Part> shadow;
+
+    @BeforeEach
+    void buildList() {
+        list = new InventoryList<>(Part::getId, indexedAdds::add, indexedRemoves::add);
+        list.addListener(this::replay);
+        shadow = new ArrayList<>();
+    }
+
+    @Test
+    void reportsAReorderingBySetAllAsOnePermutation() {
+        fill(6);
+        List<Part> reversed = new ArrayList<>(list);
+        Collections.reverse(reversed);
+        clearRecords();
+
+        list.setAll(reversed);
+        assertEquals(reversed, list);
+        assertEquals(List.of("permutation 0..6"), recordedChanges.get(0));
+        assertEquals(List.of(), indexedAdds);
+        assertEquals(List.of(), indexedRemoves);
+    }
+
+    @Test
+    void reportsNewContentsFromSetAllAsOneChange() {
+        fill(4);
+        List<Part> before = new ArrayList<>(list);
+        List<Part> replacement = List.of(before.get(2), part(10), part(11));
+        clearRecords();
+
+        list.setAll(replacement);
+        assertEquals(replacement, list);
+        assertEquals(1, recordedChanges.size());
+        assertEquals(before, indexedRemoves);
+        assertEquals(replacement, indexedAdds);
+    }
+
+    @Test
+    void reportsEachRunRemovedByRemoveAllAtItsPosition() {
+        fill(10);
+        // Runs at the start, in the middle and at the end
+        Set<Part> doomed = Set.of(list.get(0), list.get(1), list.get(4), list.get(5), list.get(6), list.get(9));
+        List<Part> expectedRemoves = new ArrayList<>(list);
+        expectedRemoves.removeIf(part -> !doomed.contains(part));
+        clearRecords();
+
+        assertTrue(list.removeAll(doomed));
+        assertEquals(List.of("remove 0 [1, 2]", "remove 2 [5, 6, 7]", "remove 4 [10]"), recordedChanges.get(0));
+        assertEquals(expectedRemoves, indexedRemoves);
+        assertEquals(List.of(3, 4, 8, 9), ids(list));
+
+        clearRecords();
+        assertFalse(list.removeAll(doomed));
+        assertEquals(List.of(), recordedChanges);
+    }
+
+    @Test
+    void reportsWhatRetainAllDropped() {
+        fill(5);
+        Set<Part> kept = Set.of(list.get(1), list.get(3));
+        clearRecords();
+
+        assertTrue(list.retainAll(kept));
+        assertEquals(List.of("remove 0 [1]", "remove 1 [3]", "remove 2 [5]"), recordedChanges.get(0));
+        assertEquals(List.of(2, 4), ids(list));
+    }
+
+    @Test
+    void reportsEachReplacedRunAndSkipsUnchangedElements() {
+        fill(8);
+        Part fourth = list.get(3);
+        clearRecords();
+
+        // Even ids are swapped for new Parts with the same id; odd ones come back as they are
+        list.replaceAll(part -> part.getId() % 2 == 0 ? part(part.getId()) : part);
+        assertEquals(List.of("replace 1..2 [2]", "replace 3..4 [4]", "replace 5..6 [6]", "replace 7..8 [8]"),
+                recordedChanges.get(0));
+        assertEquals(4, indexedAdds.size());
+        assertEquals(4, indexedRemoves.size());
+        assertSame(fourth, indexedRemoves.get(1));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), ids(list));
+
+        clearRecords();
+        list.replaceAll(UnaryOperator.identity());
+        assertEquals(List.of(), recordedChanges);
+    }
+
+    @Test
+    void coalescesABatchIntoOneChange() {
+        fill(6);
+        clearRecords();
+
+        list.beginBatch();
+        list.removeAll(Set.of(list.get(0), list.get(5)));
+        list.replaceAll(part -> part.getId() == 3 ? part(3) : part);
+        list.add(1, part(20));
+        list.setAll(List.of(list.get(3), list.get(2), list.get(1), list.get(0)));
+        list.endBatch();
+
+        assertEquals(1, recordedChanges.size());
+        assertEquals(List.of(4, 3, 20, 2), ids(list));
+    }
+
+    @Test
+    void deliversChangesThatReplayOntoTheContentsBefore() {
+        Random random = new Random(42);
+        int nextId = 1;
+        for (int step = 0; step < 2_000; step++) {
+            int size = list.size();
+            switch (size == 0 ? 0 : random.nextInt(6)) {
+                case 0:
+                    List<Part> added = new ArrayList<>();
+                    for (int i = random.nextInt(5); i >= 0; i--) {
+                        added.add(part(nextId++));
+                    }
+                    list.addAll(random.nextInt(size + 1), added);
+                    break;
+                case 1:
+                    List<Part> shuffled = new ArrayList<>(list);
+                    Collections.shuffle(shuffled, random);
+                    list.setAll(shuffled);
+                    break;
+                case 2:
+                    List<Part> mixed = new ArrayList<>(list.subList(0, random.nextInt(size + 1)));
+                    mixed.add(random.nextInt(mixed.size() + 1), part(nextId++));
+                    list.setAll(mixed);
+                    break;
+                case 3:
+                    List<Part> doomed = new ArrayList<>();
+                    list.forEach(part -> {
+                        if (random.nextInt(4) == 0) {
+                            doomed.add(part);
+                        }
+                    });
+                    list.removeAll(doomed);
+                    break;
+                case 4:
+                    list.replaceAll(part -> random.nextInt(3) == 0 ? part(part.getId()) : part);
+                    break;
+                default:
+                    list.remove(random.nextInt(size));
+                    break;
+            }
+        }
+    }
+
+    private void replay(ListChangeListener.Change<? extends Part> change) {
+        // Applying every sub-change in order to the old contents must give the new ones
+        List<String> described = new ArrayList<>();
+        while (change.next()) {
+            int from = change.getFrom();
+            int to = change.getTo();
+            if (change.wasPermutated()) {
+                List<Part> before = new ArrayList<>(shadow.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    shadow.set(change.getPermutation(i), before.get(i - from));
+                }
+                described.add("permutation " + from + ".." + to);
+            } else if (change.wasUpdated()) {
+                described.add("update " + from + ".." + to);
+            } else {
+                List<Part> removed = shadow.subList(from, from + change.getRemovedSize());
+                assertEquals(removed, change.getRemoved());
+                removed.clear();
+                shadow.addAll(from, change.getAddedSubList());
+
+                if (change.wasReplaced()) {
+                    described.add("replace " + from + ".." + to + " " + ids(change.getRemoved()));
+                } else if (change.wasAdded()) {
+                    described.add("add " + from + ".." + to);
+                } else {
+                    described.add("remove " + from + " " + ids(change.getRemoved()));
+                }
+            }
+        }
+
+        assertEquals(new ArrayList<>(change.getList()), shadow);
+        recordedChanges.add(described);
+    }
+
+    private void fill(int count) {
+        List<Part> parts = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            parts.add(part(id));
+        }
+        list.addAll(parts);
+    }
+
+    private void clearRecords() {
+        recordedChanges.clear();
+        indexedAdds.clear();
+        indexedRemoves.clear();
+    }
+
+    private static Part part(int id) {
+        return new InHouse(id, "Part " + id, 1.00, 1, 0, 10, 1);
+    }
+
+    private static List<Integer> ids(List<? extends Part> parts) {
+        List<Integer> ids = new ArrayList<>();
+        parts.forEach(part -> ids.add(part.getId()));
+        return ids;
+    }
+}
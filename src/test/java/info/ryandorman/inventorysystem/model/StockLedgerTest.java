@@ -0,0 +1,126 @@
+package info.ryandorman.inventorysystem.model;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockLedgerTest {
+
+    private static final Logger LEDGER_LOGGER = Logger.getLogger(StockLedger.class.getName());
+
+    // Publishes only when the test runs it, as the FX thread would once it gets round to it
+    private final Queue<Runnable> fxTasks = new ArrayDeque<>();
+    private final List<LogRecord> warnings = new ArrayList<>();
+    private final Handler recorder = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() == Level.WARNING) {
+                warnings.add(record);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private Inventory inventory;
+    private StockLedger ledger;
+
+    @BeforeEach
+    void buildLedger() {
+        inventory = new Inventory();
+        inventory.addPart(new InHouse(1, "Wheel", 12.50, 5, 2, 20, 7));
+        ledger = new StockLedger(inventory, fxTasks::add);
+        LEDGER_LOGGER.addHandler(recorder);
+    }
+
+    @AfterEach
+    void closeLedger() {
+        LEDGER_LOGGER.removeHandler(recorder);
+        ledger.close();
+    }
+
+    @Test
+    void publishesAdjustmentsOntoThePart() {
+        assertTrue(ledger.receive(1, 4).isAdjusted());
+        assertTrue(ledger.reserve(1, 3).isAdjusted());
+        assertFalse(ledger.consume(1, 4).isAdjusted());
+        assertEquals(5, inventory.lookupPart(1).getStock());
+
+        runFxTasks();
+        assertEquals(9, inventory.lookupPart(1).getStock());
+        assertEquals(6, ledger.getAvailable(1));
+    }
+
+    @Test
+    void carriesUnpublishedAdjustmentsOntoASavedPart() {
+        ledger.receive(1, 4);
+        ledger.reserve(1, 2);
+        inventory.updatePart(new InHouse(1, "Wheel", 12.50, 10, 2, 20, 7));
+
+        runFxTasks();
+        assertEquals(14, inventory.lookupPart(1).getStock());
+        assertEquals(2, ledger.getReserved(1));
+        assertEquals(List.of(), warnings);
+    }
+
+    @Test
+    void dropsCarriedAdjustmentsOutsideTheSavedMinAndMax() {
+        ledger.receive(1, 4);
+        // Saved with a max the 4 received units no longer fit under
+        inventory.updatePart(new InHouse(1, "Wheel", 12.50, 10, 2, 12, 7));
+
+        runFxTasks();
+        assertEquals(10, inventory.lookupPart(1).getStock());
+        assertEquals(10, ledger.getStock(1));
+        assertEquals(1, warnings.size());
+
+        // The ledger holds to the new max from here on
+        assertTrue(ledger.receive(1, 2).isAdjusted());
+        assertFalse(ledger.receive(1, 1).isAdjusted());
+    }
+
+    @Test
+    void cutsReservationsTheSavedStockCannotCover() {
+        ledger.receive(1, 10);
+        ledger.reserve(1, 12);
+        runFxTasks();
+
+        // Only 4 units above the new min of 3 are left to reserve
+        inventory.updatePart(new InHouse(1, "Wheel", 12.50, 7, 3, 20, 7));
+        runFxTasks();
+        assertEquals(7, ledger.getStock(1));
+        assertEquals(4, ledger.getReserved(1));
+        assertEquals(1, warnings.size());
+        assertFalse(ledger.reserve(1, 1).isAdjusted());
+    }
+
+    private void runFxTasks() {
+        for (Runnable task; (task = fxTasks.poll()) != null; ) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRoundTripTest {
+
+    private final CsvImporter importer = new CsvImporter(2);
+    private final CsvExporter exporter = new CsvExporter();
+
+    @Test
+    void readsBackWhatItWrites() throws IOException {
+        Inventory original = new Inventory();
+        original.addPart(new InHouse(1, "Bolt, \"hex\"", 0.25, 50, 10, 100, 7));
+        original.addPart(new Outsourced(2, "Wheel", 12.50, 5, 0, 10, "Acme, Inc."));
+        original.addPart(new Outsourced(7, "Two\nLines", 3.99, 0, 0, 5, "\"Quoted\" Co"));
+
+        // A Part listed twice is needed twice, so the ';' list keeps repeats and order
+        Product bicycle = new Product(4, "Bicycle, Red", 150.00, 3, 0, 10);
+        bicycle.addAssociatedPart(original.lookupPart(2));
+        bicycle.addAssociatedPart(original.lookupPart(1));
+        bicycle.addAssociatedPart(original.lookupPart(2));
+        original.addProduct(bicycle);
+        Product kit = new Product(9, "Kit", 5.00, 1, 0, 5);
+        kit.addAssociatedPart(original.lookupPart(7));
+        original.addProduct(kit);
+
+        Inventory copy = new Inventory();
+        ImportResult parts = importer.importParts(new StringReader(exportParts(original.getAllParts())), copy, Runnable::run);
+        ImportResult products = importer.importProducts(new StringReader(exportProducts(original.getAllProducts())),
+                copy, Runnable::run);
+
+        assertEquals(3, parts.getImported());
+        assertEquals(0, parts.getRejected());
+        assertEquals(2, products.getImported());
+        assertEquals(0, products.getRejected());
+        assertEquals(describeParts(original.getAllParts()), describeParts(copy.getAllParts()));
+        assertEquals(describeProducts(original.getAllProducts()), describeProducts(copy.getAllProducts()));
+        assertEquals(List.of(2, 1, 2), partIds(copy.lookupProduct(4)));
+
+        // Imported Products point at the imported Parts, not copies of them
+        assertTrue(copy.lookupProduct(9).getAllAssociatedParts().get(0) == copy.lookupPart(7));
+    }
+
+    @Test
+    void readsQuotedFieldsAndPartIdLists() throws IOException {
+        Inventory inventory = new Inventory();
+        String partsCsv = CsvImporter.PART_HEADER + "\n"
+                + "InHouse,1,\"Nut, \"\"wing\"\"\",0.10,5,0,10,3\n"
+                + "Outsourced,2,\"Spoke\nSet\",1.005,4,0,10,\"Acme, Inc.\"\n"
+                + "Outsourced,3,Rim,2.00,,0,10,Acme\n";
+        String productsCsv = CsvImporter.PRODUCT_HEADER + "\n"
+                + "1,Wheel,20.00,1,0,5,3;2; 2 ;1\n"
+                + "2,Empty,20.00,1,0,5,\n"
+                + "3,Missing,20.00,1,0,5,1;99\n"
+                + "4,Cheap,0.01,1,0,5,3\n";
+
+        ImportResult parts = importer.importParts(new StringReader(partsCsv), inventory, Runnable::run);
+        assertEquals(3, parts.getImported());
+        assertEquals("Nut, \"wing\"", inventory.lookupPart(1).getName());
+        assertEquals("Spoke\nSet", inventory.lookupPart(2).getName());
+        assertEquals("Acme, Inc.", ((Outsourced) inventory.lookupPart(2)).getCompanyName());
+        assertEquals(101, inventory.lookupPart(2).getPriceCents());
+        assertEquals(0, inventory.lookupPart(3).getStock());
+
+        ImportResult products = importer.importProducts(new StringReader(productsCsv), inventory, Runnable::run);
+        assertEquals(1, products.getImported());
+        assertEquals(3, products.getRejected());
+        assertEquals(List.of(3, 2, 2, 1), partIds(inventory.lookupProduct(1)));
+        assertTrue(products.getErrors().get(0).contains("at least one Part"));
+        assertTrue(products.getErrors().get(1).contains("Unknown Part id 99"));
+        assertTrue(products.getErrors().get(2).contains("lower than the cost"));
+    }
+
+    @Test
+    void letsAnImportFillIdsItsOwnClaimsSkipped() throws IOException {
+        Inventory inventory = new Inventory();
+        inventory.addPart(new InHouse(1, "Existing", 1.00, 1, 0, 5, 1));
+
+        // Claiming 5 moves the mark over 2..4, which only this import may then use
+        String csv = CsvImporter.PART_HEADER + "\n"
+                + "InHouse,5,Five,1.00,1,0,5,1\n"
+                + "InHouse,3,Three,1.00,1,0,5,1\n"
+                + "InHouse,3,Three Again,1.00,1,0,5,1\n"
+                + "InHouse,1,Taken,1.00,1,0,5,1\n"
+                + "InHouse,,Blank,1.00,1,0,5,1\n"
+                + "InHouse,2,Two,1.00,1,0,5,1\n"
+                + "InHouse,4,Four,1.00,1,0,5,1\n"
+                + "InHouse,5,Five Again,1.00,1,0,5,1\n";
+
+        ImportResult result = importer.importParts(new StringReader(csv), inventory, Runnable::run);
+        assertEquals(5, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(1, 5, 3, 6, 2, 4), inventory.getAllParts().stream().map(Part::getId).collect(Collectors.toList()));
+        assertEquals("Blank", inventory.lookupPart(6).getName());
+        assertTrue(result.getErrors().get(0).contains("Id 3 is already in use"));
+        assertTrue(result.getErrors().get(1).contains("Id 1 is already in use"));
+        assertTrue(result.getErrors().get(2).contains("Id 5 is already in use"));
+
+        // A later import can no longer have the ids the first one skipped over or used
+        String later = CsvImporter.PART_HEADER + "\n" + "InHouse,2,Two,1.00,1,0,5,1\n";
+        assertEquals(1, importer.importParts(new StringReader(later), inventory, Runnable::run).getRejected());
+    }
+
+    private String exportParts(List<Part> parts) throws IOException {
+        StringWriter writer = new StringWriter();
+        exporter.exportParts(writer, parts);
+        return writer.toString();
+    }
+
+    private String exportProducts(List<Product> products) throws IOException {
+        StringWriter writer = new StringWriter();
+        exporter.exportProducts(writer, products);
+        return writer.toString();
+    }
+
+    private static List<Integer> partIds(Product product) {
+        return product.getAllAssociatedParts().stream().map(Part::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> describeParts(List<Part> parts) {
+        return parts.stream().map(part -> part.getClass().getSimpleName() + "|" + part.getId() + "|" + part.getName()
+                + "|" + part.getPriceCents() + "|" + part.getStock() + "|" + part.getMin() + "|" + part.getMax() + "|"
+                + (part instanceof InHouse ? ((InHouse) part).getMachineId() : ((Outsourced) part).getCompanyName()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> describeProducts(List<Product> products) {
+        return products.stream().map(product -> product.getId() + "|" + product.getName() + "|" + product.getPriceCents()
+                + "|" + product.getStock() + "|" + product.getMin() + "|" + product.getMax() + "|" + partIds(product))
+                .collect(Collectors.toList());
+    }
+}
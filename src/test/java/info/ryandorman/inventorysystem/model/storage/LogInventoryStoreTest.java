@@ -0,0 +1,226 @@
+package info.ryandorman.inventorysystem.model.storage;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Part;
+import info.ryandorman.inventorysystem.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogInventoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryKindOfEditOnReopen() throws IOException {
+        List<String> saved;
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            Inventory inventory = session.inventory;
+            inventory.addPart(new InHouse(1, "Bolt", 0.25, 50, 10, 100, 7));
+            inventory.addParts(List.of(new Outsourced(2, "Wheel", 12.50, 5, 0, 10, "Acme, Inc."),
+                    new InHouse(3, "Frame", 80.00, 2, 0, 10, 4)));
+            Product bicycle = new Product(1, "Bicycle", 150.00, 3, 0, 10);
+            bicycle.addAssociatedPart(inventory.lookupPart(2));
+            bicycle.addAssociatedPart(inventory.lookupPart(3));
+            inventory.addProduct(bicycle);
+
+            inventory.updatePart(new InHouse(1, "Hex Bolt", 0.30, 40, 10, 100, 7));
+            inventory.deletePart(3);
+            Part wheel = inventory.lookupPart(2);
+            wheel.setStock(8);
+            inventory.refreshParts(List.of(wheel));
+            inventory.getAllParts().setAll(List.of(inventory.lookupPart(2), inventory.lookupPart(1)));
+            saved = describe(inventory);
+        }
+
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(saved, describe(session.inventory));
+            // Products point at the loaded Parts again, not at copies of them
+            assertSame(session.inventory.lookupPart(2),
+                    session.inventory.lookupProduct(1).getAllAssociatedParts().get(0));
+        }
+    }
+
+    @Test
+    void dropsARecordCutShortAndKeepsAppendingAfterIt() throws IOException {
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            session.inventory.addPart(new InHouse(1, "Bolt", 0.25, 50, 10, 100, 7));
+            session.inventory.addPart(new InHouse(2, "Nut", 0.10, 50, 10, 100, 7));
+        }
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            session.inventory.addPart(new InHouse(3, "Washer", 0.05, 50, 10, 100, 7));
+        }
+
+        // Cut the last record partway through, as a crash mid-write would leave it
+        Path log = directory.resolve("inventory.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(1, 2), partIds(session.inventory));
+            // The half record is trimmed off, so this one lands where it can be read back
+            session.inventory.addPart(new InHouse(4, "Spacer", 0.15, 50, 10, 100, 7));
+        }
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(1, 2, 4), partIds(session.inventory));
+            // The ids file still covers the id the lost record used
+            assertTrue(session.inventory.getPartIds().next() > 4);
+        }
+    }
+
+    @Test
+    void rollsOverToNewGenerationsAsRecordsPileUp() throws IOException {
+        List<String> saved;
+        try (Session session = new Session(new LogInventoryStore(directory, 10, 3))) {
+            for (int id = 1; id <= 40; id++) {
+                session.inventory.addPart(new InHouse(id, "Part " + id, 1.00, 1, 0, 5, 1));
+                if (id % 5 == 0) {
+                    session.inventory.deletePart(id - 2);
+                }
+            }
+            saved = describe(session.inventory);
+        }
+
+        assertTrue(Files.exists(directory.resolve("inventory.snap")));
+        assertFalse(Files.exists(directory.resolve("inventory.log.prev")));
+        try (Session session = new Session(new LogInventoryStore(directory, 10, 3))) {
+            assertEquals(saved, describe(session.inventory));
+        }
+    }
+
+    @Test
+    void replaysTheSetAsideLogWhenItsSnapshotNeverLanded() throws IOException {
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            session.inventory.addPart(new InHouse(1, "Bolt", 0.25, 50, 10, 100, 7));
+            session.inventory.addPart(new InHouse(2, "Nut", 0.10, 50, 10, 100, 7));
+        }
+
+        // A directory in the way of the snapshot's temporary file makes the snapshot fail
+        Path blocker = Files.createDirectory(directory.resolve("inventory.snap.tmp"));
+        List<Throwable> reported = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> reported.add(e));
+        try (Session session = new Session(new LogInventoryStore(directory, 10, 1))) {
+            // Sets the log aside for a snapshot, then goes on in the next generation's log
+            session.inventory.addPart(new InHouse(3, "Washer", 0.05, 50, 10, 100, 7));
+            session.inventory.addPart(new InHouse(4, "Spacer", 0.15, 50, 10, 100, 7));
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+        assertTrue(Files.exists(directory.resolve("inventory.log.prev")));
+        assertFalse(Files.exists(directory.resolve("inventory.snap")));
+        // The failure only shows if the next change saw it before the store was closed
+        assertTrue(reported.size() <= 1);
+
+        Files.delete(blocker);
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(1, 2, 3, 4), partIds(session.inventory));
+        }
+        // Opening folded both logs into a snapshot
+        assertFalse(Files.exists(directory.resolve("inventory.log.prev")));
+        assertTrue(Files.exists(directory.resolve("inventory.snap")));
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(1, 2, 3, 4), partIds(session.inventory));
+        }
+    }
+
+    @Test
+    void continuesIdsInSequenceAfterARestart() throws IOException {
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(1, session.inventory.getPartIds().next());
+            session.inventory.addPart(new InHouse(1, "Bolt", 0.25, 50, 10, 100, 7));
+            assertEquals(2, session.inventory.getPartIds().next());
+            session.inventory.addPart(new InHouse(2, "Nut", 0.10, 50, 10, 100, 7));
+            session.inventory.deletePart(2);
+            assertEquals(1, session.inventory.getProductIds().next());
+        }
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(3, session.inventory.getPartIds().next());
+            assertEquals(2, session.inventory.getProductIds().next());
+        }
+    }
+
+    @Test
+    void keepsIdsOfDeletedPartsFromTheLogAlone() throws IOException {
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            session.inventory.addPart(new InHouse(session.inventory.getPartIds().next(), "Bolt", 0.25, 50, 10, 100, 7));
+            session.inventory.addPart(new InHouse(session.inventory.getPartIds().next(), "Nut", 0.10, 50, 10, 100, 7));
+            session.inventory.deletePart(2);
+        }
+
+        // As if the process died before the marks file was rewritten; the log still has them
+        Files.delete(directory.resolve("inventory.ids"));
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(1), partIds(session.inventory));
+            assertEquals(3, session.inventory.getPartIds().next());
+        }
+    }
+
+    @Test
+    void refusesASecondOpenOfTheSameDirectory() throws IOException {
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertThrows(IOException.class, () -> new LogInventoryStore(directory).open());
+        }
+        try (Session session = new Session(new LogInventoryStore(directory))) {
+            assertEquals(List.of(), partIds(session.inventory));
+        }
+    }
+
+    private static List<Integer> partIds(Inventory inventory) {
+        return inventory.getAllParts().stream().map(Part::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(Inventory inventory) {
+        List<String> rows = new ArrayList<>();
+        for (Part part : inventory.getAllParts()) {
+            rows.add(part.getClass().getSimpleName() + "|" + part.getId() + "|" + part.getName() + "|"
+                    + part.getPriceCents() + "|" + part.getStock() + "|" + part.getMin() + "|" + part.getMax() + "|"
+                    + (part instanceof InHouse ? ((InHouse) part).getMachineId() : ((Outsourced) part).getCompanyName()));
+        }
+        for (Product product : inventory.getAllProducts()) {
+            rows.add(product.getId() + "|" + product.getName() + "|" + product.getPriceCents() + "|" + product.getStock()
+                    + "|" + product.getAllAssociatedParts().stream().map(Part::getId).collect(Collectors.toList()));
+        }
+        return rows;
+    }
+
+    private static final class Session implements AutoCloseable {
+        private final InventoryStore store;
+        private final Inventory inventory;
+
+        private Session(InventoryStore store) throws IOException {
+            this.store = store;
+            this.inventory = store.open();
+        }
+
+        @Override
+        public void close() throws IOException {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package info.ryandorman.inventorysystem.server;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import info.ryandorman.inventorysystem.model.InHouse;
+import info.ryandorman.inventorysystem.model.Inventory;
+import info.ryandorman.inventorysystem.model.Outsourced;
+import info.ryandorman.inventorysystem.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryServerTest {
+
+    private static final Pattern ID = Pattern.compile("\\{\"id\":(\\d+)");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private InventoryServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        Inventory inventory = new Inventory();
+        inventory.addPart(new InHouse(1, "Brass Bolt", 0.25, 50, 10, 100, 7));
+        inventory.addPart(new InHouse(2, "Steel Bolt", 0.40, 20, 10, 100, 7));
+        inventory.addPart(new Outsourced(3, "Wheel", 12.50, 5, 0, 10, "Acme, Inc."));
+        inventory.addPart(new Outsourced(4, "Frame", 80.00, 2, 0, 10, "Acme, Inc."));
+
+        Product bicycle = new Product(1, "Bicycle", 150.00, 3, 0, 10);
+        bicycle.addAssociatedPart(inventory.lookupPart(3));
+        bicycle.addAssociatedPart(inventory.lookupPart(4));
+        inventory.addProduct(bicycle);
+        Product boltKit = new Product(2, "Bolt Kit", 2.00, 8, 0, 20);
+        boltKit.addAssociatedPart(inventory.lookupPart(1));
+        inventory.addProduct(boltKit);
+
+        // Port 0 so the system picks a free one
+        server = new InventoryServer(inventory, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void listsEveryPartAndProduct() throws Exception {
+        HttpResponse<String> parts = get("/parts");
+        assertEquals(200, parts.statusCode());
+        assertEquals(List.of(1, 2, 3, 4), ids(parts.body()));
+        assertTrue(parts.body().contains("\"companyName\":\"Acme, Inc.\""));
+        assertTrue(parts.body().contains("\"price\":12.50"));
+
+        HttpResponse<String> products = get("/products");
+        assertEquals(200, products.statusCode());
+        assertEquals(List.of(1, 2), ids(products.body()));
+        assertTrue(products.body().contains("\"partIds\":[3,4]"));
+    }
+
+    @Test
+    void pagesWithOffsetAndLimit() throws Exception {
+        assertEquals(List.of(2, 3), ids(get("/parts?offset=1&limit=2").body()));
+        assertEquals(List.of(4), ids(get("/parts?offset=3&limit=10").body()));
+        assertEquals(List.of(), ids(get("/parts?offset=10").body()));
+        assertEquals(List.of(2), ids(get("/products?offset=1").body()));
+        assertEquals(400, get("/parts?offset=-1").statusCode());
+    }
+
+    @Test
+    void looksUpById() throws Exception {
+        HttpResponse<String> part = get("/parts/3");
+        assertEquals(200, part.statusCode());
+        assertEquals(List.of(3), ids(part.body()));
+
+        HttpResponse<String> product = get("/products/2");
+        assertEquals(200, product.statusCode());
+        assertEquals(List.of(2), ids(product.body()));
+    }
+
+    @Test
+    void searchesByIdNameAndRange() throws Exception {
+        assertEquals(List.of(1, 2), sorted(ids(get("/parts/search?q=bolt").body())));
+        assertEquals(List.of(4), ids(get("/parts/search?q=4").body()));
+        assertEquals(List.of(3, 4), sorted(ids(get("/parts/search?q=price:10..100").body())));
+        assertEquals(List.of(2), ids(get("/products/search?q=kit").body()));
+        assertEquals(List.of(1), ids(get("/products/search?q=price:100..").body()));
+        assertEquals(400, get("/parts/search").statusCode());
+    }
+
+    @Test
+    void answersNotFoundForUnknownIds() throws Exception {
+        assertEquals(404, get("/parts/99").statusCode());
+        assertEquals(404, get("/products/99").statusCode());
+        assertEquals(404, post("/parts/99/stock?receive=1").statusCode());
+        assertEquals(404, get("/parts/1/unknown").statusCode());
+    }
+
+    @Test
+    void refusesTheWrongMethod() throws Exception {
+        HttpResponse<String> postParts = post("/parts");
+        assertEquals(405, postParts.statusCode());
+        assertEquals("GET", postParts.headers().firstValue("Allow").orElse(null));
+
+        assertEquals(405, post("/products/1").statusCode());
+        assertEquals(405, get("/parts/1/stock?receive=1").statusCode());
+    }
+
+    @Test
+    void adjustsStockAndRefusesAdjustmentsOutsideMinAndMax() throws Exception {
+        HttpResponse<String> received = post("/parts/3/stock?receive=2");
+        assertEquals(200, received.statusCode());
+        assertTrue(received.body().contains("\"adjusted\":true"));
+        assertTrue(received.body().contains("\"stock\":7"));
+
+        HttpResponse<String> reserved = post("/parts/3/stock?reserve=4");
+        assertEquals(200, reserved.statusCode());
+        assertTrue(reserved.body().contains("\"available\":3"));
+
+        // Wheels have a max of 10, so receiving 5 more than the 7 on hand is refused
+        HttpResponse<String> refused = post("/parts/3/stock?receive=5");
+        assertEquals(409, refused.statusCode());
+        assertTrue(refused.body().contains("\"adjusted\":false"));
+        assertTrue(refused.body().contains("\"stock\":7"));
+
+        assertEquals(400, post("/parts/3/stock?receive=0").statusCode());
+        assertEquals(400, post("/parts/3/stock?restock=1").statusCode());
+    }
+
+    @Test
+    void servesManyKeepAliveClientsAtOnce() throws Exception {
+        // Each client keeps its connection open across its requests
+        ExecutorService clientThreads = Executors.newFixedThreadPool(32);
+        List<CompletableFuture<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            HttpClient keepAliveClient = HttpClient.newHttpClient();
+            clients.add(CompletableFuture.runAsync(() -> {
+                try {
+                    for (int request = 0; request < 10; request++) {
+                        assertEquals(200, send(keepAliveClient, HttpRequest.newBuilder(uri("/parts/1")).GET()).statusCode());
+                    }
+                    assertEquals(200, send(keepAliveClient, HttpRequest.newBuilder(uri("/parts/1/stock?receive=1"))
+                            .POST(HttpRequest.BodyPublishers.noBody())).statusCode());
+                } catch (IOException | InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+            }, clientThreads));
+        }
+        try {
+            CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        } finally {
+            clientThreads.shutdown();
+        }
+
+        // 50 to start with and one received by each client
+        assertTrue(post("/parts/1/stock?reserve=1").body().contains("\"stock\":82"));
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private static List<Integer> ids(String body) {
+        // Ids of the top-level objects; nested Part ids in a Product are in a plain array
+        List<Integer> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(Integer.parseInt(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        ids.sort(null);
+        return ids;
+    }
+}
@@ -0,0 +1,130 @@
+package info.ryandorman.inventorysystem.utilities;
+
+/*
+ *   Ryan Dorman
+ *   ID: 001002824
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotListTest {
+
+    // Matches the list's chunk capacity, so edits can be aimed at the edges between chunks
+    private static final int CHUNK_SIZE = 256;
+
+    @Test
+    void matchesAnArrayListUnderRandomEdits() {
+        for (long seed = 1; seed <= 10; seed++) {
+            runAgainstArrayList(new Random(seed), 3_000);
+        }
+    }
+
+    @Test
+    void keepsSnapshotsAsTheyWereWhenTaken() {
+        SnapshotList<Integer> list = new SnapshotList<>();
+        for (int i = 0; i < 3 * CHUNK_SIZE; i++) {
+            list.add(i);
+        }
+
+        List<Integer> before = list.snapshot();
+        List<Integer> expected = new ArrayList<>(list);
+
+        list.set(CHUNK_SIZE, -1);
+        list.add(CHUNK_SIZE - 1, -2);
+        list.remove(2 * CHUNK_SIZE);
+        list.replaceAll(value -> value * 2);
+        list.subList(10, 2 * CHUNK_SIZE + 10).clear();
+        list.addAll(0, new ArrayList<>(expected));
+        assertEquals(expected, before);
+
+        List<Integer> after = list.snapshot();
+        List<Integer> afterExpected = new ArrayList<>(list);
+        list.clear();
+        assertEquals(expected, before);
+        assertEquals(afterExpected, after);
+    }
+
+    private static void runAgainstArrayList(Random random, int steps) {
+        // Values are never reused, so each one is a unique key and indexOf has a single answer
+        SnapshotList<Integer> list = new SnapshotList<>(Integer::intValue);
+        List<Integer> expected = new ArrayList<>();
+        List<List<Integer>> snapshots = new ArrayList<>();
+        List<List<Integer>> snapshotContents = new ArrayList<>();
+        int nextValue = 1;
+
+        for (int step = 0; step < steps; step++) {
+            int size = expected.size();
+            int operation = random.nextInt(100);
+
+            if (operation < 35 || size == 0) {
+                int index = pickIndex(random, size + 1);
+                list.add(index, nextValue);
+                expected.add(index, nextValue);
+                nextValue++;
+            } else if (operation < 42 && size < 8 * CHUNK_SIZE) {
+                // Bulk inserts long enough to fill whole chunks of their own, while the list stays a few chunks long
+                int index = pickIndex(random, size + 1);
+                List<Integer> added = new ArrayList<>();
+                for (int i = random.nextInt(2 * CHUNK_SIZE + 2); i > 0; i--) {
+                    added.add(nextValue++);
+                }
+                assertEquals(expected.addAll(index, added), list.addAll(index, added));
+            } else if (operation < 70) {
+                int index = pickIndex(random, size);
+                assertEquals(expected.remove(index), list.remove(index));
+            } else if (operation < 75) {
+                int from = pickIndex(random, size);
+                int to = Math.min(size, from + random.nextInt(2 * CHUNK_SIZE + 2));
+                list.subList(from, to).clear();
+                expected.subList(from, to).clear();
+            } else if (operation < 92) {
+                int index = pickIndex(random, size);
+                assertEquals(expected.set(index, nextValue), list.set(index, nextValue));
+                nextValue++;
+            } else if (operation < 95) {
+                // A bijection, so the values stay unique
+                list.replaceAll(value -> -value);
+                expected.replaceAll(value -> -value);
+            } else if (operation < 99) {
+                snapshots.add(list.snapshot());
+                snapshotContents.add(new ArrayList<>(expected));
+            } else if (random.nextInt(4) == 0) {
+                list.clear();
+                expected.clear();
+            }
+
+            assertEquals(expected, list);
+            if (!expected.isEmpty()) {
+                int probe = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.indexOf(probe), list.indexOf(probe));
+                assertEquals(expected.indexOf(probe), list.indexOfKey(probe));
+            }
+        }
+
+        List<Integer> forEachOrder = new ArrayList<>();
+        list.forEach(forEachOrder::add);
+        assertEquals(expected, forEachOrder);
+        assertEquals(-1, list.indexOfKey(nextValue));
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(snapshotContents.get(i), snapshots.get(i));
+            assertEquals(snapshotContents.get(i).size(), snapshots.get(i).size());
+        }
+    }
+
+    private static int pickIndex(Random random, int bound) {
+        // Half the time land on or next to a chunk edge
+        if (bound > CHUNK_SIZE && random.nextBoolean()) {
+            int edge = CHUNK_SIZE * (1 + random.nextInt(bound / CHUNK_SIZE));
+            int index = edge + random.nextInt(3) - 1;
+            return Math.min(Math.max(index, 0), bound - 1);
+        }
+        return random.nextInt(bound);
+    }
+}